@@ -0,0 +1,180 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Arbre de coupes (arbre de flots équivalent de Gomory-Hu, construit par l'algorithme de Gusfield)
+ * d'un {@link GrapheCompact} : pour toute paire de sommets {@code u}, {@code v}, le nombre minimum d'arêtes
+ * à supprimer pour séparer {@code u} de {@code v} est la plus petite valeur sur le chemin de {@code u} à {@code v}
+ * dans l'arbre. La construction fait n - c calculs de flot (c étant le nombre de classes de connexité),
+ * les classes de connexité étant traitées en parallèle ; chaque requête coûte ensuite O(log n).
+ * <p>
+ * Remarque : les coupes minimales en sommets (ensembles critiques) n'ont pas de telle structure d'arbre,
+ * elles se calculent paire par paire avec {@link CoupesSommets}.
+ */
+public class ArbreDeCoupes {
+    private final GrapheCompact graphe;
+    /**
+     * Parent de chaque identifiant dans l'arbre (-1 pour la racine de chaque classe de connexité)
+     * et valeur de la coupe minimale entre l'identifiant et son parent.
+     */
+    private final int[] parents;
+    private final int[] valeurs;
+    private final int[] profondeurs;
+    private final int[] racines;
+    /**
+     * Tables de sauts : {@code sauts[j][u]} est l'ancêtre de u à distance 2^j et {@code minimums[j][u]}
+     * la plus petite valeur rencontrée entre u et cet ancêtre.
+     */
+    private final int[][] sauts;
+    private final int[][] minimums;
+
+    public ArbreDeCoupes(GrapheCompact graphe) {
+        this(graphe, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool le pool de threads utilisé pour traiter les classes de connexité en parallèle
+     */
+    public ArbreDeCoupes(GrapheCompact graphe, ForkJoinPool pool) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        parents = new int[n];
+        valeurs = new int[n];
+        profondeurs = new int[n];
+        racines = new int[n];
+        ClassesConnexite classes = new ClassesConnexite(graphe);
+        List<RecursiveAction> taches = new ArrayList<>();
+        for (int k = 0; k < classes.getNbClasses(); k++) {
+            int[] membres = classes.getMembres(k);
+            taches.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    construire(membres);
+                }
+            });
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(taches);
+            }
+        });
+
+        int niveaux = 1;
+        while ((1 << niveaux) < n)
+            niveaux++;
+        sauts = new int[niveaux][n];
+        minimums = new int[niveaux][n];
+        for (int u = 0; u < n; u++) {
+            sauts[0][u] = parents[u] < 0 ? u : parents[u];
+            minimums[0][u] = parents[u] < 0 ? Integer.MAX_VALUE : valeurs[u];
+        }
+        for (int j = 1; j < niveaux; j++) {
+            for (int u = 0; u < n; u++) {
+                int milieu = sauts[j - 1][u];
+                sauts[j][u] = sauts[j - 1][milieu];
+                minimums[j][u] = Math.min(minimums[j - 1][u], minimums[j - 1][milieu]);
+            }
+        }
+    }
+
+    /**
+     * Algorithme de Gusfield sur une classe de connexité, avec un réseau de flot local à la classe.
+     *
+     * @param membres les identifiants de la classe, par ordre croissant
+     */
+    private void construire(int[] membres) {
+        int k = membres.length;
+        int racine = membres[0];
+        for (int u : membres)
+            racines[u] = racine;
+        parents[racine] = -1;
+        if (k == 1)
+            return;
+        int[] locaux = new int[k];
+        FlotMaximal reseau = new FlotMaximal(k);
+        for (int i = 0; i < k; i++) {
+            int u = membres[i];
+            for (int a = graphe.debutVoisins(u); a < graphe.finVoisins(u); a++) {
+                int v = graphe.getVoisin(a);
+                if (v > u)
+                    ajouterArete(reseau, i, Arrays.binarySearch(membres, v));
+            }
+        }
+        // locaux[i] : parent local de i dans l'arbre
+        for (int i = 1; i < k; i++) {
+            int flot = (int) reseau.calculer(i, locaux[i]);
+            valeurs[membres[i]] = flot;
+            for (int j = i + 1; j < k; j++)
+                if (locaux[j] == locaux[i] && reseau.estCoteSource(j))
+                    locaux[j] = i;
+        }
+        // Le parent local d'un sommet est toujours d'indice plus petit : on calcule les profondeurs dans l'ordre
+        for (int i = 1; i < k; i++) {
+            parents[membres[i]] = membres[locaux[i]];
+            profondeurs[membres[i]] = profondeurs[membres[locaux[i]]] + 1;
+        }
+    }
+
+    private static void ajouterArete(FlotMaximal reseau, int u, int v) {
+        reseau.ajouterArc(u, v, 1);
+        reseau.ajouterArc(v, u, 1);
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return le parent de l'identifiant {@code u} dans l'arbre, ou -1 si {@code u} est une racine
+     */
+    public int getParent(int u) {
+        return parents[u];
+    }
+
+    /**
+     * @return la valeur de la coupe minimale entre {@code u} et son parent (0 pour une racine)
+     */
+    public int getValeur(int u) {
+        return valeurs[u];
+    }
+
+    /**
+     * @return le nombre minimum d'arêtes à supprimer pour séparer {@code u} de {@code v}
+     * (0 s'ils ne sont pas reliés, Integer.MAX_VALUE si {@code u == v})
+     */
+    public int getCoupeMinimale(int u, int v) {
+        if (u == v)
+            return Integer.MAX_VALUE;
+        if (racines[u] != racines[v])
+            return 0;
+        int minimum = Integer.MAX_VALUE;
+        if (profondeurs[u] < profondeurs[v]) {
+            int tmp = u;
+            u = v;
+            v = tmp;
+        }
+        int ecart = profondeurs[u] - profondeurs[v];
+        for (int j = 0; ecart > 0; j++, ecart >>= 1) {
+            if ((ecart & 1) != 0) {
+                minimum = Math.min(minimum, minimums[j][u]);
+                u = sauts[j][u];
+            }
+        }
+        if (u == v)
+            return minimum;
+        for (int j = sauts.length - 1; j >= 0; j--) {
+            if (sauts[j][u] != sauts[j][v]) {
+                minimum = Math.min(minimum, Math.min(minimums[j][u], minimums[j][v]));
+                u = sauts[j][u];
+                v = sauts[j][v];
+            }
+        }
+        return Math.min(minimum, Math.min(minimums[0][u], minimums[0][v]));
+    }
+}
@@ -0,0 +1,150 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Approximation d'un arbre de Steiner pondéré par les sommets : un ensemble connexe de sommets de coût
+ * (somme des surcouts) aussi petit que possible qui relie un réseau de départ à des sommets terminaux.
+ * <p>
+ * On utilise l'heuristique des plus courts chemins : tant qu'il reste des terminaux à relier, on ajoute à
+ * l'arbre un plus court chemin vers le terminal le plus proche. Les distances à l'arbre sont celles d'un
+ * Dijkstra multi-sources qui n'est jamais relancé : quand des sommets entrent dans l'arbre, leur distance
+ * passe à 0 et seuls les sommets qui se rapprochent sont parcourus à nouveau.
+ * <p>
+ * Comme pour {@link Graphe#getDistance}, les sommets de départ ne sont pas comptés dans le coût ; sans réseau
+ * de départ, l'arbre part du premier terminal, qui n'est pas compté non plus.
+ */
+public class ArbreDeSteiner {
+    private final GrapheCompact graphe;
+    private final boolean[] dansArbre;
+    private int[] membres;
+    private int nbMembres;
+    private int cout;
+    private int nbTerminauxNonRelies;
+
+    /**
+     * @param depart    identifiants du réseau de départ (éventuellement vide)
+     * @param terminaux identifiants des sommets à relier
+     */
+    public ArbreDeSteiner(GrapheCompact graphe, int[] depart, int[] terminaux) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        dansArbre = new boolean[n];
+        membres = new int[Math.max(1, depart.length + terminaux.length)];
+        int[] distances = new int[n];
+        int[] predecesseurs = new int[n];
+        Arrays.fill(distances, Dijkstra.INFINI);
+        Arrays.fill(predecesseurs, -1);
+        TasBinaireIndexe tas = new TasBinaireIndexe(n);
+
+        int[] restants = terminaux.clone();
+        Arrays.sort(restants);
+        int nbRestants = restants.length;
+        if (depart.length > 0) {
+            for (int u : depart)
+                ajouterAuReseau(u, distances, predecesseurs, tas);
+        } else if (nbRestants > 0) {
+            ajouterAuReseau(restants[0], distances, predecesseurs, tas);
+        }
+        propager(distances, predecesseurs, tas);
+
+        while (true) {
+            // Terminal le plus proche de l'arbre (le plus petit identifiant à distance égale)
+            int meilleur = -1;
+            int k = 0;
+            for (int i = 0; i < nbRestants; i++) {
+                int t = restants[i];
+                if (dansArbre[t])
+                    continue;
+                restants[k++] = t;
+                if (distances[t] != Dijkstra.INFINI && (meilleur < 0 || distances[t] < distances[meilleur]))
+                    meilleur = t;
+            }
+            nbRestants = k;
+            if (meilleur < 0)
+                break;
+            for (int u = meilleur; !dansArbre[u]; ) {
+                int suivant = predecesseurs[u];
+                cout += graphe.getSurcout(u);
+                ajouterAuReseau(u, distances, predecesseurs, tas);
+                u = suivant;
+            }
+            propager(distances, predecesseurs, tas);
+        }
+        nbTerminauxNonRelies = nbRestants;
+        membres = Arrays.copyOf(membres, nbMembres);
+        Arrays.sort(membres);
+    }
+
+    private void ajouterAuReseau(int u, int[] distances, int[] predecesseurs, TasBinaireIndexe tas) {
+        if (dansArbre[u])
+            return;
+        dansArbre[u] = true;
+        if (nbMembres == membres.length)
+            membres = Arrays.copyOf(membres, 2 * nbMembres);
+        membres[nbMembres++] = u;
+        distances[u] = 0;
+        predecesseurs[u] = -1;
+        tas.insererOuDiminuer(u, 0);
+    }
+
+    /**
+     * Dijkstra depuis les sommets du tas, qui ne parcourt que les sommets dont la distance diminue.
+     */
+    private void propager(int[] distances, int[] predecesseurs, TasBinaireIndexe tas) {
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            int du = distances[u];
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int v = graphe.getVoisin(k);
+                int dv = du + graphe.getSurcout(v);
+                if (dv < distances[v]) {
+                    distances[v] = dv;
+                    predecesseurs[v] = u;
+                    tas.insererOuDiminuer(v, dv);
+                }
+            }
+        }
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return la somme des surcouts des sommets de l'arbre qui ne font pas partie du départ
+     */
+    public int getCout() {
+        return cout;
+    }
+
+    /**
+     * @return le nombre de terminaux qui n'ont pas pu être reliés (pas dans la même classe de connexité que l'arbre)
+     */
+    public int getNbTerminauxNonRelies() {
+        return nbTerminauxNonRelies;
+    }
+
+    public boolean contient(int u) {
+        return dansArbre[u];
+    }
+
+    /**
+     * @return les identifiants des sommets de l'arbre (départ compris), par ordre croissant
+     */
+    public int[] getMembres() {
+        return membres.clone();
+    }
+
+    /**
+     * @return les sommets de l'arbre (départ compris)
+     */
+    public Set<Sommet> getSommets() {
+        Set<Sommet> sommets = new HashSet<>();
+        for (int u : membres)
+            sommets.add(graphe.getSommet(u));
+        return sommets;
+    }
+}
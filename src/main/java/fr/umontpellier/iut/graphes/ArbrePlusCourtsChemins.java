@@ -0,0 +1,184 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Arbre des plus courts chemins d'un {@link GrapheCompact} depuis une ou plusieurs sources, calculé une seule fois
+ * par l'algorithme de Dijkstra. Chaque sommet atteint garde sa distance et son prédécesseur, ce qui permet ensuite
+ * d'obtenir la distance de n'importe quel sommet en O(1) et le chemin qui y mène en O(longueur du chemin).
+ * <p>
+ * Comme pour {@link Graphe#getDistance}, le coût d'un chemin est la somme des surcouts des sommets dans lesquels
+ * on entre. L'arbre ne suit pas les modifications ultérieures du graphe.
+ * <p>
+ * {@link #depuisReseau} calcule l'arbre d'expansion du réseau d'un joueur, dans lequel les sommets déjà
+ * possédés ne coûtent rien.
+ */
+public class ArbrePlusCourtsChemins {
+    private final GrapheCompact graphe;
+    private final int[] distances;
+    private final int[] predecesseurs;
+
+    /**
+     * Calcule l'arbre depuis les identifiants {@code sources} (au moins un).
+     */
+    public ArbrePlusCourtsChemins(GrapheCompact graphe, int... sources) {
+        this.graphe = graphe;
+        Dijkstra dijkstra = new Dijkstra(graphe);
+        dijkstra.calculer(sources);
+        distances = dijkstra.getDistances();
+        predecesseurs = dijkstra.getPredecesseurs();
+    }
+
+    private ArbrePlusCourtsChemins(GrapheCompact graphe, int[] distances, int[] predecesseurs) {
+        this.graphe = graphe;
+        this.distances = distances;
+        this.predecesseurs = predecesseurs;
+    }
+
+    /**
+     * Calcule en un seul parcours les distances depuis un réseau, où entrer dans un sommet du réseau ne coûte rien
+     * et entrer dans un autre sommet coûte son surcout. Les surcouts étant de petits entiers, la file de priorité
+     * est une file à godets circulaire (algorithme de Dial) : chaque sommet est rangé dans le godet de sa distance
+     * modulo (surcout maximum + 1), ce qui donne un parcours en O(n + m + distance maximale).
+     *
+     * @param possedes les sommets du réseau, qui sont aussi les sources
+     */
+    public static ArbrePlusCourtsChemins depuisReseau(GrapheCompact graphe, boolean[] possedes) {
+        int n = graphe.getNbSommets();
+        int surcoutMax = 0;
+        for (int u = 0; u < n; u++)
+            if (!possedes[u])
+                surcoutMax = Math.max(surcoutMax, graphe.getSurcout(u));
+        int nbGodets = surcoutMax + 1;
+        int[] distances = new int[n];
+        int[] predecesseurs = new int[n];
+        Arrays.fill(distances, Dijkstra.INFINI);
+        Arrays.fill(predecesseurs, -1);
+        // Chaque godet est une liste doublement chaînée, pour pouvoir déplacer un sommet en O(1)
+        int[] tetes = new int[nbGodets];
+        int[] suivants = new int[n];
+        int[] precedents = new int[n];
+        Arrays.fill(tetes, -1);
+        int nbRanges = 0;
+        for (int u = 0; u < n; u++) {
+            if (possedes[u]) {
+                distances[u] = 0;
+                ranger(u, 0, tetes, suivants, precedents);
+                nbRanges++;
+            }
+        }
+        for (int d = 0; nbRanges > 0; d++) {
+            int godet = d % nbGodets;
+            while (tetes[godet] >= 0) {
+                int u = tetes[godet];
+                retirer(u, godet, tetes, suivants, precedents);
+                nbRanges--;
+                for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                    int v = graphe.getVoisin(k);
+                    int dv = d + (possedes[v] ? 0 : graphe.getSurcout(v));
+                    if (dv < distances[v]) {
+                        if (distances[v] != Dijkstra.INFINI)
+                            retirer(v, distances[v] % nbGodets, tetes, suivants, precedents);
+                        else
+                            nbRanges++;
+                        distances[v] = dv;
+                        predecesseurs[v] = u;
+                        ranger(v, dv % nbGodets, tetes, suivants, precedents);
+                    }
+                }
+            }
+        }
+        return new ArbrePlusCourtsChemins(graphe, distances, predecesseurs);
+    }
+
+    private static void ranger(int u, int godet, int[] tetes, int[] suivants, int[] precedents) {
+        suivants[u] = tetes[godet];
+        precedents[u] = -1;
+        if (tetes[godet] >= 0)
+            precedents[tetes[godet]] = u;
+        tetes[godet] = u;
+    }
+
+    private static void retirer(int u, int godet, int[] tetes, int[] suivants, int[] precedents) {
+        if (precedents[u] >= 0)
+            suivants[precedents[u]] = suivants[u];
+        else
+            tetes[godet] = suivants[u];
+        if (suivants[u] >= 0)
+            precedents[suivants[u]] = precedents[u];
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return la distance de l'ensemble des sources à {@code u} ({@link Dijkstra#INFINI} si {@code u} n'est pas atteint)
+     */
+    public int getDistance(int u) {
+        return distances[u];
+    }
+
+    /**
+     * @return la distance des sources au sommet {@code s} ({@link Dijkstra#INFINI} s'il n'est pas atteint
+     * ou s'il n'est pas dans le graphe)
+     */
+    public int getDistance(Sommet s) {
+        int u = graphe.getId(s);
+        return u < 0 ? Dijkstra.INFINI : distances[u];
+    }
+
+    public boolean estAtteint(int u) {
+        return distances[u] != Dijkstra.INFINI;
+    }
+
+    /**
+     * @return le prédécesseur de {@code u} dans l'arbre (-1 pour les sources et les sommets non atteints)
+     */
+    public int getPredecesseur(int u) {
+        return predecesseurs[u];
+    }
+
+    /**
+     * @return la source de laquelle part le chemin vers {@code u} (-1 si {@code u} n'est pas atteint)
+     */
+    public int getSource(int u) {
+        if (!estAtteint(u))
+            return -1;
+        while (predecesseurs[u] >= 0)
+            u = predecesseurs[u];
+        return u;
+    }
+
+    /**
+     * @return les identifiants d'un plus court chemin depuis une source jusqu'à {@code u} (les deux compris),
+     * ou un tableau vide si {@code u} n'est pas atteint
+     */
+    public int[] getChemin(int u) {
+        if (!estAtteint(u))
+            return new int[0];
+        int longueur = 0;
+        for (int x = u; x >= 0; x = predecesseurs[x])
+            longueur++;
+        int[] chemin = new int[longueur];
+        for (int x = u; x >= 0; x = predecesseurs[x])
+            chemin[--longueur] = x;
+        return chemin;
+    }
+
+    /**
+     * @return les sommets d'un plus court chemin depuis une source jusqu'à {@code s} (les deux compris),
+     * ou une liste vide si {@code s} n'est pas atteint
+     */
+    public List<Sommet> getChemin(Sommet s) {
+        int u = graphe.getId(s);
+        List<Sommet> chemin = new ArrayList<>();
+        if (u < 0)
+            return chemin;
+        for (int x : getChemin(u))
+            chemin.add(graphe.getSommet(x));
+        return chemin;
+    }
+}
@@ -0,0 +1,214 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Points d'articulation et composantes biconnexes (blocs) d'un {@link GrapheCompact},
+ * calculés par l'algorithme de Hopcroft-Tarjan en un parcours en profondeur itératif, en O(n + m).
+ * Un point d'articulation est un sommet dont la suppression augmente le nombre de classes de connexité.
+ * Un bloc est un sous-graphe connexe maximal sans point d'articulation ; deux blocs partagent au plus
+ * un sommet, qui est alors un point d'articulation. Un sommet isolé forme un bloc à lui seul.
+ */
+public class Biconnexite {
+    private final GrapheCompact graphe;
+    private final boolean[] articulations;
+    private final int nbArticulations;
+    /**
+     * Sommets de chaque bloc : le bloc b occupe {@code membres[debutsBlocs[b]..debutsBlocs[b+1]-1]}.
+     */
+    private final int[] debutsBlocs;
+    private final int[] membres;
+    private final int nbBlocs;
+    /**
+     * Arbre des blocs et des points d'articulation, calculé à la demande.
+     */
+    private GrapheCompact arbreBlocs;
+    /**
+     * Identifiant dans l'arbre des blocs de chaque point d'articulation, calculé avec l'arbre.
+     */
+    private int[] noeuds;
+
+    public Biconnexite(GrapheCompact graphe) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        int[] ordre = new int[n];
+        int[] low = new int[n];
+        int[] parents = new int[n];
+        int[] curseurs = new int[n];
+        int[] pileParcours = new int[n];
+        int[] pileSommets = new int[n];
+        articulations = new boolean[n];
+        Arrays.fill(ordre, -1);
+        int[] bornes = new int[n + 1];
+        int[] blocs = new int[2 * n];
+
+        int compteur = 0, b = 0, taille = 0, nbPoints = 0;
+        for (int racine = 0; racine < n; racine++) {
+            if (ordre[racine] >= 0)
+                continue;
+            ordre[racine] = low[racine] = compteur++;
+            if (graphe.degre(racine) == 0) {
+                blocs[taille++] = racine;
+                bornes[++b] = taille;
+                continue;
+            }
+            int hautParcours = 0, hautSommets = 0, nbFilsRacine = 0;
+            pileParcours[hautParcours++] = racine;
+            pileSommets[hautSommets++] = racine;
+            parents[racine] = -1;
+            curseurs[racine] = graphe.debutVoisins(racine);
+            while (hautParcours > 0) {
+                int u = pileParcours[hautParcours - 1];
+                if (curseurs[u] < graphe.finVoisins(u)) {
+                    int v = graphe.getVoisin(curseurs[u]++);
+                    if (ordre[v] < 0) {
+                        ordre[v] = low[v] = compteur++;
+                        parents[v] = u;
+                        curseurs[v] = graphe.debutVoisins(v);
+                        pileParcours[hautParcours++] = v;
+                        pileSommets[hautSommets++] = v;
+                    } else if (v != parents[u]) {
+                        low[u] = Math.min(low[u], ordre[v]);
+                    }
+                } else {
+                    hautParcours--;
+                    int p = parents[u];
+                    if (p < 0)
+                        continue;
+                    low[p] = Math.min(low[p], low[u]);
+                    if (low[u] >= ordre[p]) {
+                        // p sépare le sous-arbre de u du reste : le bloc est ce sous-arbre plus p
+                        if (p == racine)
+                            nbFilsRacine++;
+                        else if (!articulations[p]) {
+                            articulations[p] = true;
+                            nbPoints++;
+                        }
+                        if (taille + hautSommets + 1 > blocs.length)
+                            blocs = Arrays.copyOf(blocs, 2 * blocs.length + hautSommets + 1);
+                        int w;
+                        do {
+                            w = pileSommets[--hautSommets];
+                            blocs[taille++] = w;
+                        } while (w != u);
+                        blocs[taille++] = p;
+                        if (b + 1 >= bornes.length)
+                            bornes = Arrays.copyOf(bornes, 2 * bornes.length);
+                        bornes[++b] = taille;
+                    }
+                }
+            }
+            if (nbFilsRacine >= 2) {
+                articulations[racine] = true;
+                nbPoints++;
+            }
+        }
+        nbArticulations = nbPoints;
+        nbBlocs = b;
+        debutsBlocs = Arrays.copyOf(bornes, b + 1);
+        membres = Arrays.copyOf(blocs, taille);
+        for (int k = 0; k < b; k++)
+            Arrays.sort(membres, debutsBlocs[k], debutsBlocs[k + 1]);
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return true si et seulement si l'identifiant {@code u} est un point d'articulation
+     */
+    public boolean estPointDArticulation(int u) {
+        return articulations[u];
+    }
+
+    public int getNbPointsDArticulation() {
+        return nbArticulations;
+    }
+
+    /**
+     * @return les points d'articulation sous forme d'ensemble de sommets
+     */
+    public Set<Sommet> getPointsDArticulation() {
+        Set<Sommet> points = new HashSet<>();
+        for (int u = 0; u < articulations.length; u++)
+            if (articulations[u])
+                points.add(graphe.getSommet(u));
+        return points;
+    }
+
+    public int getNbBlocs() {
+        return nbBlocs;
+    }
+
+    /**
+     * @return les identifiants des sommets du bloc {@code b}, par ordre croissant
+     */
+    public int[] getMembres(int b) {
+        return Arrays.copyOfRange(membres, debutsBlocs[b], debutsBlocs[b + 1]);
+    }
+
+    /**
+     * @return les blocs sous forme d'ensembles de sommets
+     */
+    public Set<Set<Sommet>> getEnsembleBlocs() {
+        Set<Set<Sommet>> ensembles = new HashSet<>();
+        for (int b = 0; b < nbBlocs; b++)
+            ensembles.add(graphe.getSommets(membres, debutsBlocs[b], debutsBlocs[b + 1]));
+        return ensembles;
+    }
+
+    /**
+     * @return l'arbre des blocs (ou forêt, si le graphe n'est pas connexe) : les identifiants 0..B-1
+     * sont les blocs, les identifiants B..B+A-1 sont les points d'articulation par identifiant croissant,
+     * et chaque point d'articulation est relié aux blocs qui le contiennent.
+     * Les indices des noeuds sont leurs identifiants ; les surcouts et points de victoire sont nuls,
+     * sauf pour les points d'articulation qui gardent ceux du sommet correspondant
+     * ({@code getSommet} renvoie null pour les blocs).
+     */
+    public GrapheCompact getArbreBlocs() {
+        if (arbreBlocs != null)
+            return arbreBlocs;
+        int n = graphe.getNbSommets();
+        int nbNoeuds = nbBlocs + nbArticulations;
+        noeuds = new int[n];
+        int[] indices = new int[nbNoeuds];
+        int[] surcouts = new int[nbNoeuds];
+        int[] nbPointsVictoire = new int[nbNoeuds];
+        Sommet[] sommets = new Sommet[nbNoeuds];
+        for (int x = 0; x < nbNoeuds; x++)
+            indices[x] = x;
+        int x = nbBlocs;
+        for (int u = 0; u < n; u++) {
+            if (articulations[u]) {
+                noeuds[u] = x;
+                surcouts[x] = graphe.getSurcout(u);
+                nbPointsVictoire[x] = graphe.getNbPointsVictoire(u);
+                sommets[x] = graphe.getSommet(u);
+                x++;
+            }
+        }
+        int[] aretes = new int[2 * membres.length];
+        int nbAretes = 0;
+        for (int b = 0; b < nbBlocs; b++) {
+            for (int k = debutsBlocs[b]; k < debutsBlocs[b + 1]; k++) {
+                if (articulations[membres[k]]) {
+                    aretes[2 * nbAretes] = b;
+                    aretes[2 * nbAretes + 1] = noeuds[membres[k]];
+                    nbAretes++;
+                }
+            }
+        }
+        arbreBlocs = GrapheCompact.depuisAretes(indices, surcouts, nbPointsVictoire, sommets, aretes, nbAretes);
+        return arbreBlocs;
+    }
+
+    /**
+     * @return l'identifiant, dans l'arbre des blocs, du point d'articulation {@code u}, ou -1 si {@code u}
+     * n'est pas un point d'articulation
+     */
+    public int getNoeudArticulation(int u) {
+        getArbreBlocs();
+        return articulations[u] ? noeuds[u] : -1;
+    }
+}
@@ -0,0 +1,214 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Cache des distances entre toutes les paires de sommets d'un {@link GrapheCompact}.
+ * Les distances sont rangées par ligne (une ligne par sommet de départ), et chaque ligne n'est calculée
+ * par l'algorithme de Dijkstra qu'à la première requête qui en a besoin ; {@link #calculerTout} permet
+ * de calculer d'avance toutes les lignes manquantes en parallèle.
+ * <p>
+ * Chaque ligne garde l'arbre des plus courts chemins qui l'a produite. Quand le surcout d'un sommet
+ * {@code v} change (voir {@link Graphe#modifierSurcout}), seules les distances qui en dépendent sont recalculées :
+ * la ligne de {@code v} ne change pas, la distance vers {@code v} est décalée de la différence, et seuls les
+ * descendants de {@code v} dans l'arbre (si le coût augmente) ou les sommets qui se rapprochent en passant par
+ * {@code v} (s'il diminue) sont parcourus à nouveau.
+ * <p>
+ * Le cache n'est pas synchronisé : à part {@link #calculerTout}, il doit être utilisé par un seul thread à la fois.
+ */
+public class CacheDistances {
+    private final GrapheCompact graphe;
+    /**
+     * Distances et prédécesseurs depuis chaque sommet de départ (null si la ligne n'est pas encore calculée).
+     */
+    private final int[][] distances;
+    private final int[][] predecesseurs;
+    private Dijkstra dijkstra;
+    /**
+     * Tableaux de travail des réparations (alloués à la première modification).
+     */
+    private TasBinaireIndexe tas;
+    private boolean[] marques;
+    private int[] file;
+
+    public CacheDistances(GrapheCompact graphe) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        distances = new int[n][];
+        predecesseurs = new int[n][];
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return la distance de {@code s} à {@code t} ({@link Dijkstra#INFINI} si {@code t} n'est pas atteignable)
+     */
+    public int getDistance(int s, int t) {
+        return getLigne(s)[t];
+    }
+
+    /**
+     * @return true si la ligne de {@code s} est en cache
+     */
+    public boolean estCalculee(int s) {
+        return distances[s] != null;
+    }
+
+    /**
+     * @return le nombre de lignes en cache
+     */
+    public int getNbLignesCalculees() {
+        int nb = 0;
+        for (int[] ligne : distances)
+            if (ligne != null)
+                nb++;
+        return nb;
+    }
+
+    private int[] getLigne(int s) {
+        if (distances[s] == null) {
+            if (dijkstra == null)
+                dijkstra = new Dijkstra(graphe);
+            calculerLigne(dijkstra, s);
+        }
+        return distances[s];
+    }
+
+    private void calculerLigne(Dijkstra calcul, int s) {
+        calcul.calculer(s);
+        predecesseurs[s] = calcul.getPredecesseurs();
+        distances[s] = calcul.getDistances();
+    }
+
+    /**
+     * Calcule toutes les lignes manquantes dans le pool commun.
+     */
+    public void calculerTout() {
+        calculerTout(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calcule toutes les lignes manquantes en parallèle dans {@code pool}, chaque thread utilisant
+     * son propre {@link Dijkstra}.
+     */
+    public void calculerTout(ForkJoinPool pool) {
+        int[] manquantes = IntStream.range(0, distances.length).filter(s -> distances[s] == null).toArray();
+        if (manquantes.length == 0)
+            return;
+        pool.submit(() -> IntStream.of(manquantes).parallel().forEach(new IntConsumer() {
+            private final ThreadLocal<Dijkstra> calculs = ThreadLocal.withInitial(() -> new Dijkstra(graphe));
+
+            @Override
+            public void accept(int s) {
+                calculerLigne(calculs.get(), s);
+            }
+        })).join();
+    }
+
+    /**
+     * Met à jour les lignes en cache après que le surcout de {@code v} est passé de {@code ancien} à
+     * la valeur actuelle dans le graphe compact.
+     */
+    void surcoutModifie(int v, int ancien) {
+        int delta = graphe.getSurcout(v) - ancien;
+        if (delta == 0)
+            return;
+        for (int s = 0; s < distances.length; s++) {
+            int[] d = distances[s];
+            if (d == null || s == v || d[v] == Dijkstra.INFINI)
+                continue;
+            d[v] += delta;
+            if (delta > 0)
+                reparerAugmentation(d, predecesseurs[s], v);
+            else
+                propager(d, predecesseurs[s], v);
+        }
+    }
+
+    private void preparer() {
+        if (tas == null) {
+            int n = graphe.getNbSommets();
+            tas = new TasBinaireIndexe(n);
+            marques = new boolean[n];
+            file = new int[n];
+        }
+    }
+
+    /**
+     * Le coût de {@code v} a augmenté : seuls ses descendants dans l'arbre des plus courts chemins peuvent
+     * s'éloigner. On les marque, on leur donne la meilleure distance passant par un voisin non marqué,
+     * puis on termine par un Dijkstra restreint aux sommets marqués.
+     */
+    private void reparerAugmentation(int[] d, int[] pred, int v) {
+        preparer();
+        // Parcours en largeur de l'arbre depuis v : file[1..fin[ contient les descendants de v
+        int debut = 0, fin = 0;
+        file[fin++] = v;
+        while (debut < fin) {
+            int u = file[debut++];
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int x = graphe.getVoisin(k);
+                if (pred[x] == u) {
+                    marques[x] = true;
+                    file[fin++] = x;
+                }
+            }
+        }
+        for (int i = 1; i < fin; i++) {
+            d[file[i]] = Dijkstra.INFINI;
+            pred[file[i]] = -1;
+        }
+        for (int i = 1; i < fin; i++) {
+            int x = file[i];
+            int cout = graphe.getSurcout(x);
+            for (int k = graphe.debutVoisins(x); k < graphe.finVoisins(x); k++) {
+                int y = graphe.getVoisin(k);
+                if (!marques[y] && d[y] != Dijkstra.INFINI && d[y] + cout < d[x]) {
+                    d[x] = d[y] + cout;
+                    pred[x] = y;
+                }
+            }
+            if (d[x] != Dijkstra.INFINI)
+                tas.insererOuDiminuer(x, d[x]);
+        }
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int x = graphe.getVoisin(k);
+                int dx = d[u] + graphe.getSurcout(x);
+                if (marques[x] && dx < d[x]) {
+                    d[x] = dx;
+                    pred[x] = u;
+                    tas.insererOuDiminuer(x, dx);
+                }
+            }
+        }
+        for (int i = 1; i < fin; i++)
+            marques[file[i]] = false;
+    }
+
+    /**
+     * Le coût de {@code v} a diminué : on propage la nouvelle distance de {@code v} par un Dijkstra
+     * qui ne visite que les sommets dont la distance s'améliore.
+     */
+    private void propager(int[] d, int[] pred, int v) {
+        preparer();
+        tas.insererOuDiminuer(v, d[v]);
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int x = graphe.getVoisin(k);
+                int dx = d[u] + graphe.getSurcout(x);
+                if (dx < d[x]) {
+                    d[x] = dx;
+                    pred[x] = u;
+                    tas.insererOuDiminuer(x, dx);
+                }
+            }
+        }
+    }
+}
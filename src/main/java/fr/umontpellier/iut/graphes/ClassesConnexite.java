@@ -0,0 +1,132 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Classes de connexité d'un {@link GrapheCompact}, calculées par union-find sur les arêtes.
+ * Les classes sont numérotées de 0 à c-1 dans l'ordre de leur plus petit identifiant.
+ * Les groupes d'identifiants de chaque classe ne sont construits qu'à la première demande,
+ * et les ensembles de {@link Sommet} seulement si on les demande explicitement.
+ */
+public class ClassesConnexite {
+    private final GrapheCompact graphe;
+    private final UnionFind unionFind;
+    /**
+     * Numéro de classe de chaque identifiant, calculé à la demande.
+     */
+    private int[] classes;
+    /**
+     * Identifiants regroupés par classe : la classe k occupe {@code membres[debuts[k]..debuts[k+1]-1]}.
+     */
+    private int[] debuts;
+    private int[] membres;
+
+    public ClassesConnexite(GrapheCompact graphe) {
+        this.graphe = graphe;
+        this.unionFind = new UnionFind(graphe.getNbSommets());
+        for (int u = 0; u < graphe.getNbSommets(); u++)
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++)
+                if (graphe.getVoisin(k) > u)
+                    unionFind.unir(u, graphe.getVoisin(k));
+    }
+
+    /**
+     * @return le graphe dont on a calculé les classes
+     */
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    public int getNbClasses() {
+        return unionFind.getNbClasses();
+    }
+
+    /**
+     * @return true si et seulement si le graphe est connexe (le graphe vide est connexe)
+     */
+    public boolean estConnexe() {
+        return getNbClasses() <= 1;
+    }
+
+    public boolean memeClasse(int u, int v) {
+        return unionFind.memeClasse(u, v);
+    }
+
+    /**
+     * @return le numéro (entre 0 et c-1) de la classe de l'identifiant {@code u}
+     */
+    public int getClasse(int u) {
+        numeroter();
+        return classes[u];
+    }
+
+    /**
+     * @return le nombre de sommets de la classe {@code classe}
+     */
+    public int getTaille(int classe) {
+        regrouper();
+        return debuts[classe + 1] - debuts[classe];
+    }
+
+    /**
+     * @return les identifiants des sommets de la classe {@code classe}, par ordre croissant
+     */
+    public int[] getMembres(int classe) {
+        regrouper();
+        return Arrays.copyOfRange(membres, debuts[classe], debuts[classe + 1]);
+    }
+
+    /**
+     * @return la classe {@code classe} sous forme d'ensemble de sommets
+     */
+    public Set<Sommet> getEnsemble(int classe) {
+        regrouper();
+        return graphe.getSommets(membres, debuts[classe], debuts[classe + 1]);
+    }
+
+    /**
+     * @return l'ensemble des classes sous forme d'ensembles de sommets
+     */
+    public Set<Set<Sommet>> getEnsembles() {
+        Set<Set<Sommet>> ensembles = new HashSet<>();
+        for (int classe = 0; classe < getNbClasses(); classe++)
+            ensembles.add(getEnsemble(classe));
+        return ensembles;
+    }
+
+    private void numeroter() {
+        if (classes != null)
+            return;
+        int n = graphe.getNbSommets();
+        int[] numeros = new int[n];
+        Arrays.fill(numeros, -1);
+        int[] resultat = new int[n];
+        int nbClasses = 0;
+        for (int u = 0; u < n; u++) {
+            int racine = unionFind.trouver(u);
+            if (numeros[racine] < 0)
+                numeros[racine] = nbClasses++;
+            resultat[u] = numeros[racine];
+        }
+        classes = resultat;
+    }
+
+    private void regrouper() {
+        if (membres != null)
+            return;
+        numeroter();
+        int n = classes.length;
+        int c = getNbClasses();
+        int[] bornes = new int[c + 1];
+        for (int u = 0; u < n; u++)
+            bornes[classes[u] + 1]++;
+        for (int k = 0; k < c; k++)
+            bornes[k + 1] += bornes[k];
+        int[] curseurs = Arrays.copyOf(bornes, c);
+        int[] groupes = new int[n];
+        for (int u = 0; u < n; u++)
+            groupes[curseurs[classes[u]]++] = u;
+        debuts = bornes;
+        membres = groupes;
+    }
+}
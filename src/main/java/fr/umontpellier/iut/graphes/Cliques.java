@@ -0,0 +1,378 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Recherche de cliques (sous-graphes complets) dans un {@link GrapheCompact} par l'algorithme de Bron–Kerbosch
+ * avec pivot, les sommets de départ étant pris dans l'ordre de dégénérescence (Eppstein, Löffler et Strash).
+ * <p>
+ * Dans l'ordre de dégénérescence, chaque sommet a au plus d voisins après lui (d est la dégénérescence) :
+ * une clique a donc au plus d + 1 sommets, ce qui permet de répondre sans recherche à beaucoup de questions.
+ * Pour chaque sommet de départ u, la recherche ne porte que sur ses voisins : les candidats (ses voisins placés
+ * après lui, au plus d) et les exclus (ses voisins placés avant). Ce sous-graphe local est stocké sous forme
+ * d'ensembles de bits ({@code long[]}), si bien que les intersections se font 64 sommets à la fois ; seules les
+ * lignes des candidats sont complètes, celles des exclus se limitent aux candidats. La mémoire est en O(d Δ / 64)
+ * mots (Δ est le degré maximum) au lieu de O(n² / 64) pour une matrice d'adjacence complète, et la construction
+ * des sous-graphes locaux coûte O(d m) au total.
+ * <p>
+ * Les recherches utilisent des tableaux de travail partagés : un même objet ne doit pas être utilisé
+ * par plusieurs fils d'exécution à la fois.
+ */
+public class Cliques {
+    private static final int ENUMERATION = 0;
+    private static final int RECHERCHE = 1;
+    private static final int MAXIMUM = 2;
+
+    private final GrapheCompact graphe;
+    private final int[] ordre;
+    /**
+     * Position de chaque sommet dans l'ordre de dégénérescence.
+     */
+    private final int[] rangs;
+    private final int degenerescence;
+    private final int degreMax;
+
+    /**
+     * Sous-graphe local du sommet de départ : les candidats ont les numéros locaux 0..nbLocauxCandidats-1 et les
+     * exclus les suivants. La ligne d'un candidat occupe nbMots mots de {@code lignes}, celle d'un exclu
+     * nbMotsCandidats mots (voir {@link #ligne}). Ces tableaux ne sont alloués qu'à la première recherche.
+     */
+    private int[] locaux;
+    private int[] globaux;
+    private long[] lignes;
+    private int nbLocauxCandidats;
+    private int nbMots;
+    private int nbMotsCandidats;
+
+    /**
+     * Ensembles P (candidats), X (déjà traités) et sommets sur lesquels brancher, pour chaque profondeur,
+     * en numéros locaux.
+     */
+    private long[][] candidats;
+    private long[][] exclus;
+    private long[][] branches;
+    private int[] clique;
+    private int mode;
+    private int cible;
+    private int meilleure;
+    private int[] cliqueMaximum;
+    private Consumer<int[]> visiteur;
+
+    /**
+     * Calcule seulement l'ordre de dégénérescence, en O(n + m) ; les tableaux de la recherche sont alloués
+     * à la première question qui en a besoin.
+     */
+    public Cliques(GrapheCompact graphe) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        ordre = new int[n];
+        rangs = new int[n];
+        int max = 0;
+        for (int u = 0; u < n; u++)
+            max = Math.max(max, graphe.degre(u));
+        degreMax = max;
+        degenerescence = ordonner();
+        for (int i = 0; i < n; i++)
+            rangs[ordre[i]] = i;
+    }
+
+    /**
+     * Calcule l'ordre de dégénérescence (on retire à chaque fois un sommet de degré minimum) avec une file
+     * à godets indexée par le degré, en O(n + m).
+     *
+     * @return la dégénérescence du graphe
+     */
+    private int ordonner() {
+        int n = graphe.getNbSommets();
+        int[] degres = new int[n];
+        int degreMax = 0;
+        for (int u = 0; u < n; u++) {
+            degres[u] = graphe.degre(u);
+            degreMax = Math.max(degreMax, degres[u]);
+        }
+        // Sommets triés par degré, avec le début de chaque degré et la position de chaque sommet
+        int[] debuts = new int[degreMax + 2];
+        for (int u = 0; u < n; u++)
+            debuts[degres[u] + 1]++;
+        for (int d = 0; d <= degreMax; d++)
+            debuts[d + 1] += debuts[d];
+        int[] tries = new int[n];
+        int[] positions = new int[n];
+        int[] curseurs = Arrays.copyOf(debuts, degreMax + 1);
+        for (int u = 0; u < n; u++) {
+            positions[u] = curseurs[degres[u]]++;
+            tries[positions[u]] = u;
+        }
+        int d = 0;
+        for (int i = 0; i < n; i++) {
+            int u = tries[i];
+            ordre[i] = u;
+            d = Math.max(d, degres[u]);
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int v = graphe.getVoisin(k);
+                if (degres[v] > degres[u]) {
+                    // v passe au début de son godet, qui commence alors une case plus loin
+                    int dv = degres[v];
+                    int w = tries[debuts[dv]];
+                    if (w != v) {
+                        tries[positions[v]] = w;
+                        positions[w] = positions[v];
+                        tries[debuts[dv]] = v;
+                        positions[v] = debuts[dv];
+                    }
+                    debuts[dv]++;
+                    degres[v]--;
+                }
+            }
+        }
+        return d;
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return la dégénérescence du graphe (un majorant de la taille d'une clique moins un)
+     */
+    public int getDegenerescence() {
+        return degenerescence;
+    }
+
+    /**
+     * @return true si et seulement si le graphe contient une clique de {@code k} sommets
+     * (la recherche s'arrête dès qu'une telle clique est trouvée)
+     */
+    public boolean possedeClique(int k) {
+        if (k <= 0)
+            return true;
+        if (k > degenerescence + 1 || k > graphe.getNbSommets())
+            return false;
+        if (k <= 2)
+            return k == 1 || graphe.getNbAretes() > 0;
+        mode = RECHERCHE;
+        cible = k;
+        return parcourir();
+    }
+
+    /**
+     * @return le nombre de sommets d'une plus grande clique
+     */
+    public int getTailleMaximum() {
+        return getCliqueMaximum().length;
+    }
+
+    /**
+     * @return les identifiants d'une plus grande clique, par ordre croissant
+     */
+    public int[] getCliqueMaximum() {
+        if (cliqueMaximum == null) {
+            mode = MAXIMUM;
+            meilleure = 0;
+            cliqueMaximum = new int[0];
+            parcourir();
+            Arrays.sort(cliqueMaximum);
+        }
+        return cliqueMaximum.clone();
+    }
+
+    /**
+     * Appelle {@code visiteur} sur chaque clique maximale (qu'on ne peut pas agrandir) exactement une fois.
+     * Le tableau reçu contient les identifiants de la clique et peut être conservé.
+     */
+    public void enumererCliquesMaximales(Consumer<int[]> visiteur) {
+        mode = ENUMERATION;
+        this.visiteur = visiteur;
+        try {
+            parcourir();
+        } finally {
+            this.visiteur = null;
+        }
+    }
+
+    /**
+     * @return l'ensemble des cliques maximales, chacune sous forme d'un ensemble de sommets
+     */
+    public Set<Set<Sommet>> getCliquesMaximales() {
+        Set<Set<Sommet>> cliques = new HashSet<>();
+        enumererCliquesMaximales(ids -> cliques.add(graphe.getSommets(ids, 0, ids.length)));
+        return cliques;
+    }
+
+    /**
+     * Lance Bron–Kerbosch depuis chaque sommet dans l'ordre de dégénérescence : les candidats sont ses voisins
+     * placés après lui et les sommets exclus ses voisins placés avant.
+     *
+     * @return true si la recherche a été interrompue parce qu'une clique de la taille cherchée a été trouvée
+     */
+    private boolean parcourir() {
+        if (locaux == null) {
+            locaux = new int[graphe.getNbSommets()];
+            Arrays.fill(locaux, -1);
+            globaux = new int[degreMax];
+            lignes = new long[0];
+            // Une clique a au plus d + 1 sommets, la recherche descend donc d'au plus d + 2 niveaux
+            candidats = new long[degenerescence + 3][];
+            exclus = new long[degenerescence + 3][];
+            branches = new long[degenerescence + 3][];
+            clique = new int[degenerescence + 2];
+        }
+        for (int u : ordre) {
+            int nbCandidats = 0;
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++)
+                if (rangs[graphe.getVoisin(k)] > rangs[u])
+                    nbCandidats++;
+            // Aucune clique assez grande ne commence par u
+            if (mode == RECHERCHE && nbCandidats + 1 < cible || mode == MAXIMUM && nbCandidats + 1 <= meilleure)
+                continue;
+            preparerSommet(u, nbCandidats);
+            long[] p = tableau(candidats, 1), x = tableau(exclus, 1);
+            Arrays.fill(p, 0, nbMots, 0);
+            Arrays.fill(x, 0, nbMots, 0);
+            for (int i = 0; i < graphe.degre(u); i++) {
+                if (i < nbCandidats)
+                    p[i >>> 6] |= 1L << i;
+                else
+                    x[i >>> 6] |= 1L << i;
+            }
+            clique[0] = u;
+            boolean trouvee = explorer(1, 1);
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++)
+                locaux[graphe.getVoisin(k)] = -1;
+            if (trouvee)
+                return true;
+            if (mode == MAXIMUM && meilleure == degenerescence + 1)
+                return false;
+        }
+        return false;
+    }
+
+    /**
+     * Numérote les voisins de {@code u} (les candidats d'abord) et construit les lignes de son sous-graphe local
+     * en parcourant seulement les voisins des candidats : une arête entre un candidat et un exclu est inscrite
+     * dans les deux lignes.
+     */
+    private void preparerSommet(int u, int nbCandidats) {
+        int nbLocaux = graphe.degre(u);
+        nbLocauxCandidats = nbCandidats;
+        nbMots = (nbLocaux + 63) >>> 6;
+        nbMotsCandidats = (nbCandidats + 63) >>> 6;
+        int suivantCandidat = 0, suivantExclu = nbCandidats;
+        for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+            int v = graphe.getVoisin(k);
+            int i = rangs[v] > rangs[u] ? suivantCandidat++ : suivantExclu++;
+            locaux[v] = i;
+            globaux[i] = v;
+        }
+        int taille = ligne(nbLocaux);
+        if (lignes.length < taille)
+            lignes = new long[Math.max(taille, 2 * lignes.length)];
+        Arrays.fill(lignes, 0, taille, 0);
+        for (int i = 0; i < nbCandidats; i++) {
+            int debut = ligne(i);
+            int v = globaux[i];
+            for (int k = graphe.debutVoisins(v); k < graphe.finVoisins(v); k++) {
+                int j = locaux[graphe.getVoisin(k)];
+                if (j < 0)
+                    continue;
+                lignes[debut + (j >>> 6)] |= 1L << j;
+                if (j >= nbCandidats)
+                    lignes[ligne(j) + (i >>> 6)] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * @return la position dans {@code lignes} de la ligne du sommet local {@code i}
+     */
+    private int ligne(int i) {
+        return i < nbLocauxCandidats ? i * nbMots
+                : nbLocauxCandidats * nbMots + (i - nbLocauxCandidats) * nbMotsCandidats;
+    }
+
+    private long[] tableau(long[][] pile, int profondeur) {
+        int taille = (degreMax + 63) >>> 6;
+        if (pile[profondeur] == null)
+            pile[profondeur] = new long[taille];
+        return pile[profondeur];
+    }
+
+    /**
+     * Étend la clique {@code clique[0..taille-1]} avec les candidats {@code candidats[profondeur]},
+     * en ne branchant que sur les candidats qui ne sont pas voisins du pivot. Les candidats n'occupent que les
+     * nbMotsCandidats premiers mots des ensembles, les exclus les nbMots premiers.
+     */
+    private boolean explorer(int profondeur, int taille) {
+        if (mode == RECHERCHE && taille >= cible)
+            return true;
+        long[] p = candidats[profondeur], x = exclus[profondeur];
+        int nbCandidats = cardinal(p, nbMotsCandidats);
+        if (nbCandidats == 0) {
+            if (mode == ENUMERATION && cardinal(x, nbMots) == 0)
+                visiteur.accept(Arrays.copyOf(clique, taille));
+            else if (mode == MAXIMUM && taille > meilleure) {
+                meilleure = taille;
+                cliqueMaximum = Arrays.copyOf(clique, taille);
+            }
+            return false;
+        }
+        if (mode == RECHERCHE && taille + nbCandidats < cible || mode == MAXIMUM && taille + nbCandidats <= meilleure)
+            return false;
+
+        int pivot = ligne(choisirPivot(p, x));
+        long[] b = tableau(branches, profondeur);
+        for (int w = 0; w < nbMotsCandidats; w++)
+            b[w] = p[w] & ~lignes[pivot + w];
+        long[] pSuivant = tableau(candidats, profondeur + 1), xSuivant = tableau(exclus, profondeur + 1);
+        for (int w = 0; w < nbMotsCandidats; w++) {
+            for (long bits = b[w]; bits != 0; bits &= bits - 1) {
+                int v = w << 6 | Long.numberOfTrailingZeros(bits);
+                int voisins = ligne(v);
+                for (int i = 0; i < nbMotsCandidats; i++)
+                    pSuivant[i] = p[i] & lignes[voisins + i];
+                for (int i = 0; i < nbMots; i++)
+                    xSuivant[i] = x[i] & lignes[voisins + i];
+                clique[taille] = globaux[v];
+                if (explorer(profondeur + 1, taille + 1))
+                    return true;
+                p[w] &= ~(1L << v);
+                x[w] |= 1L << v;
+                nbCandidats--;
+                if (mode == MAXIMUM && taille + nbCandidats <= meilleure)
+                    return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return le sommet local de P ∪ X qui a le plus de voisins dans P (les branches sont alors les moins nombreuses)
+     */
+    private int choisirPivot(long[] p, long[] x) {
+        int pivot = -1, meilleur = -1;
+        for (int w = 0; w < nbMots; w++) {
+            for (long bits = w < nbMotsCandidats ? p[w] | x[w] : x[w]; bits != 0; bits &= bits - 1) {
+                int u = w << 6 | Long.numberOfTrailingZeros(bits);
+                int voisins = ligne(u);
+                int nb = 0;
+                for (int i = 0; i < nbMotsCandidats; i++)
+                    nb += Long.bitCount(p[i] & lignes[voisins + i]);
+                if (nb > meilleur) {
+                    meilleur = nb;
+                    pivot = u;
+                }
+            }
+        }
+        return pivot;
+    }
+
+    private static int cardinal(long[] ensemble, int nbMots) {
+        int nb = 0;
+        for (int w = 0; w < nbMots; w++)
+            nb += Long.bitCount(ensemble[w]);
+        return nb;
+    }
+}
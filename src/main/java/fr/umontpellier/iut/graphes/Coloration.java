@@ -0,0 +1,108 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coloration des sommets d'un {@link GrapheCompact} : la couleur de chaque identifiant est un entier
+ * de 0 à {@code getNbCouleurs() - 1}. Les classes de couleur ne sont construites que par {@link #getClasses}.
+ */
+public class Coloration {
+    private final GrapheCompact graphe;
+    private final int[] couleurs;
+    private final int nbCouleurs;
+
+    /**
+     * @param couleurs la couleur de chaque identifiant (le tableau n'est pas copié)
+     */
+    public Coloration(GrapheCompact graphe, int[] couleurs) {
+        this.graphe = graphe;
+        this.couleurs = couleurs;
+        int max = -1;
+        for (int couleur : couleurs)
+            max = Math.max(max, couleur);
+        nbCouleurs = max + 1;
+    }
+
+    /**
+     * Coloration gloutonne : les sommets sont pris par degré décroissant puis par indice croissant, et chacun
+     * reçoit la plus petite couleur qu'aucun de ses voisins déjà coloriés n'utilise.
+     * L'ordre est obtenu par un tri par dénombrement sur les degrés (stable, et les identifiants sont déjà rangés
+     * par indice croissant), et les couleurs des voisins sont marquées dans un ensemble de bits réutilisé d'un
+     * sommet à l'autre : le tout est en O(n + m).
+     */
+    public static Coloration gloutonne(GrapheCompact graphe) {
+        int n = graphe.getNbSommets();
+        int degreMax = 0;
+        for (int u = 0; u < n; u++)
+            degreMax = Math.max(degreMax, graphe.degre(u));
+        // debuts[degreMax - d] : position du premier sommet de degré d, les degrés étant rangés par ordre décroissant
+        int[] debuts = new int[degreMax + 2];
+        for (int u = 0; u < n; u++)
+            debuts[degreMax - graphe.degre(u) + 1]++;
+        for (int d = 0; d <= degreMax; d++)
+            debuts[d + 1] += debuts[d];
+        int[] ordre = new int[n];
+        for (int u = 0; u < n; u++)
+            ordre[debuts[degreMax - graphe.degre(u)]++] = u;
+
+        int[] couleurs = new int[n];
+        Arrays.fill(couleurs, -1);
+        // Un sommet a au plus degreMax voisins : l'une des degreMax + 1 premières couleurs est toujours libre
+        long[] interdites = new long[(degreMax + 64) >>> 6];
+        for (int u : ordre) {
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int c = couleurs[graphe.getVoisin(k)];
+                if (c >= 0)
+                    interdites[c >>> 6] |= 1L << c;
+            }
+            int w = 0;
+            while (interdites[w] == -1L)
+                w++;
+            couleurs[u] = w << 6 | Long.numberOfTrailingZeros(~interdites[w]);
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int c = couleurs[graphe.getVoisin(k)];
+                if (c >= 0)
+                    interdites[c >>> 6] = 0;
+            }
+        }
+        return new Coloration(graphe, couleurs);
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    public int getCouleur(int u) {
+        return couleurs[u];
+    }
+
+    public int getNbCouleurs() {
+        return nbCouleurs;
+    }
+
+    /**
+     * @return true si deux sommets voisins n'ont jamais la même couleur
+     */
+    public boolean estPropre() {
+        for (int u = 0; u < couleurs.length; u++)
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++)
+                if (couleurs[graphe.getVoisin(k)] == couleurs[u])
+                    return false;
+        return true;
+    }
+
+    /**
+     * @return les classes de couleur sous forme d'une Map dont les clés sont les couleurs numérotées à partir de 1
+     * (comme pour {@link Graphe#getColorationGloutonne}), sans classe vide
+     */
+    public Map<Integer, Set<Sommet>> getClasses() {
+        Map<Integer, Set<Sommet>> classes = new HashMap<>();
+        for (int u = 0; u < couleurs.length; u++)
+            classes.computeIfAbsent(couleurs[u] + 1, k -> new HashSet<>()).add(graphe.getSommet(u));
+        return classes;
+    }
+}
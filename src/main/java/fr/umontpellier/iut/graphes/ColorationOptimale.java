@@ -0,0 +1,352 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Coloration propre d'un {@link GrapheCompact} avec le plus petit nombre de couleurs possible, par séparation
+ * et évaluation dans l'ordre DSatur (Brélaz) : on colorie toujours le sommet dont les voisins utilisent le plus
+ * de couleurs différentes (son degré de saturation), puis celui de plus grand degré.
+ * <p>
+ * La borne supérieure de départ est la coloration DSatur gloutonne et la borne inférieure la taille d'une plus
+ * grande clique ({@link Cliques}), dont les sommets reçoivent d'avance les couleurs 0, 1, 2... pour ne pas
+ * explorer les permutations de couleurs. La recherche s'arrête dès qu'une coloration atteint la borne
+ * inférieure, ou quand toutes les colorations avec moins de couleurs que la meilleure trouvée ont été écartées :
+ * le résultat est alors prouvé optimal. Sur le plateau (planaire, fait de triangles), la clique a trois sommets
+ * et DSatur trouve en général tout de suite une coloration à trois couleurs.
+ * <p>
+ * Les couleurs interdites pour chaque sommet sont tenues dans des ensembles de bits, avec pendant la recherche
+ * exacte le nombre de voisins qui utilisent chaque couleur pour pouvoir revenir en arrière. Les sommets non
+ * coloriés sont rangés dans des godets par saturation ; chaque godet est un ensemble de bits sur les rangs des
+ * sommets par degré décroissant, avec un résumé de ses mots non nuls, si bien que le prochain sommet se trouve
+ * sans parcourir tous les sommets.
+ * <p>
+ * La mémoire dépend du nombre de couleurs et non du degré maximum : DSatur glouton n'utilise que les ensembles
+ * de bits, agrandis au fil des couleurs qu'il introduit, et les compteurs de la recherche exacte sont dimensionnés
+ * par le nombre de couleurs qu'il a trouvé (ils ne sont pas alloués s'il atteint déjà la borne inférieure).
+ * La recherche exacte est itérative, avec une pile explicite (sommet, prochaine couleur à essayer).
+ */
+public class ColorationOptimale {
+    private final GrapheCompact graphe;
+    private final int n;
+    private final int[] couleurs;
+    /**
+     * Bit {@code c & 63} de {@code interdites[c >>> 6][u]} : la couleur c est utilisée par un voisin de {@code u}.
+     */
+    private long[][] interdites;
+    /**
+     * {@code nbVoisins[c][u]} : nombre de voisins de {@code u} de couleur c (seulement pendant la recherche exacte).
+     */
+    private int[][] nbVoisins;
+    private final int[] saturations;
+    /**
+     * Rang de chaque sommet par degré décroissant puis identifiant croissant, et sommet de chaque rang.
+     */
+    private final int[] rangs;
+    private final int[] parRang;
+    /**
+     * Godet de la saturation s : {@code godets[s]} (bit r : le sommet de rang r est non colorié et de saturation s)
+     * et {@code resumes[s]} (bit w : le mot w du godet n'est pas nul).
+     */
+    private long[][] godets;
+    private long[][] resumes;
+    private final int nbMotsGodet;
+    private final int nbMotsResume;
+    private int[] taillesGodets;
+    /**
+     * Majorant de la plus grande saturation d'un sommet non colorié.
+     */
+    private int saturationMax;
+    private int[] meilleure;
+    private int nbMeilleure;
+    private final int borneInferieure;
+    private long nbNoeuds;
+
+    public ColorationOptimale(GrapheCompact graphe) {
+        this(graphe, new Cliques(graphe));
+    }
+
+    /**
+     * @param cliques la recherche de cliques du même graphe, pour la borne inférieure
+     */
+    public ColorationOptimale(GrapheCompact graphe, Cliques cliques) {
+        this.graphe = graphe;
+        n = graphe.getNbSommets();
+        couleurs = new int[n];
+        saturations = new int[n];
+        int[] clique = cliques.getCliqueMaximum();
+        borneInferieure = clique.length;
+        Arrays.fill(couleurs, -1);
+
+        // Rangs par degré décroissant (tri par dénombrement stable, les identifiants restent croissants)
+        int max = 0;
+        for (int u = 0; u < n; u++)
+            max = Math.max(max, graphe.degre(u));
+        rangs = new int[n];
+        parRang = new int[n];
+        int[] debuts = new int[max + 2];
+        for (int u = 0; u < n; u++)
+            debuts[max - graphe.degre(u) + 1]++;
+        for (int d = 0; d <= max; d++)
+            debuts[d + 1] += debuts[d];
+        for (int u = 0; u < n; u++) {
+            rangs[u] = debuts[max - graphe.degre(u)]++;
+            parRang[rangs[u]] = u;
+        }
+        nbMotsGodet = (n + 63) >>> 6;
+        nbMotsResume = (nbMotsGodet + 63) >>> 6;
+        interdites = new long[0][];
+        godets = new long[0][];
+        resumes = new long[0][];
+        taillesGodets = new int[0];
+        agrandir(1);
+        for (int u = 0; u < n; u++)
+            ajouterGodet(u);
+
+        // Borne supérieure : DSatur glouton, qui fixe aussi la taille des tableaux de la recherche exacte
+        for (int i = 0; i < n; i++) {
+            int u = choisirSommet();
+            int c = premiereCouleurLibre(u);
+            agrandir(c + 1);
+            colorierGlouton(u, c);
+        }
+        meilleure = couleurs.clone();
+        nbMeilleure = 0;
+        for (int couleur : meilleure)
+            nbMeilleure = Math.max(nbMeilleure, couleur + 1);
+        if (nbMeilleure <= borneInferieure)
+            return;
+
+        // Recherche exacte : elle n'utilise que les couleurs 0..nbMeilleure-2, donc des saturations < nbMeilleure
+        Arrays.fill(couleurs, -1);
+        Arrays.fill(saturations, 0);
+        for (long[] mots : interdites)
+            Arrays.fill(mots, 0);
+        for (int s = 0; s < godets.length; s++) {
+            Arrays.fill(godets[s], 0);
+            Arrays.fill(resumes[s], 0);
+        }
+        Arrays.fill(taillesGodets, 0);
+        saturationMax = 0;
+        for (int u = 0; u < n; u++)
+            ajouterGodet(u);
+        nbVoisins = new int[nbMeilleure][n];
+        for (int c = 0; c < clique.length; c++)
+            colorier(clique[c], c);
+        explorer(clique.length);
+    }
+
+    /**
+     * Agrandit les ensembles de bits pour pouvoir utiliser les couleurs 0..nbCouleurs-1 (les saturations
+     * vont alors jusqu'à nbCouleurs).
+     */
+    private void agrandir(int nbCouleurs) {
+        int nbMots = (nbCouleurs + 63) >>> 6;
+        if (nbMots > interdites.length) {
+            int ancien = interdites.length;
+            interdites = Arrays.copyOf(interdites, Math.max(nbMots, 2 * ancien));
+            for (int w = ancien; w < interdites.length; w++)
+                interdites[w] = new long[n];
+        }
+        if (nbCouleurs >= godets.length) {
+            int ancien = godets.length;
+            int taille = Math.max(nbCouleurs + 1, 2 * ancien);
+            godets = Arrays.copyOf(godets, taille);
+            resumes = Arrays.copyOf(resumes, taille);
+            taillesGodets = Arrays.copyOf(taillesGodets, taille);
+            for (int s = ancien; s < taille; s++) {
+                godets[s] = new long[nbMotsGodet];
+                resumes[s] = new long[nbMotsResume];
+            }
+        }
+    }
+
+    /**
+     * @return le sommet non colorié de plus grande saturation, puis de plus grand degré, puis de plus petit
+     * identifiant (-1 s'il n'y en a pas)
+     */
+    private int choisirSommet() {
+        while (saturationMax >= 0 && taillesGodets[saturationMax] == 0)
+            saturationMax--;
+        if (saturationMax < 0)
+            return -1;
+        long[] resume = resumes[saturationMax];
+        int i = 0;
+        while (resume[i] == 0)
+            i++;
+        int w = i << 6 | Long.numberOfTrailingZeros(resume[i]);
+        long mot = godets[saturationMax][w];
+        return parRang[w << 6 | Long.numberOfTrailingZeros(mot)];
+    }
+
+    private void ajouterGodet(int u) {
+        int s = saturations[u], r = rangs[u];
+        godets[s][r >>> 6] |= 1L << r;
+        resumes[s][r >>> 12] |= 1L << (r >>> 6);
+        taillesGodets[s]++;
+        saturationMax = Math.max(saturationMax, s);
+    }
+
+    private void retirerGodet(int u) {
+        int s = saturations[u], r = rangs[u];
+        godets[s][r >>> 6] &= ~(1L << r);
+        if (godets[s][r >>> 6] == 0)
+            resumes[s][r >>> 12] &= ~(1L << (r >>> 6));
+        taillesGodets[s]--;
+    }
+
+    private boolean estInterdite(int u, int c) {
+        return (interdites[c >>> 6][u] & 1L << c) != 0;
+    }
+
+    private int premiereCouleurLibre(int u) {
+        for (int w = 0; w < interdites.length; w++) {
+            long libres = ~interdites[w][u];
+            if (libres != 0)
+                return w << 6 | Long.numberOfTrailingZeros(libres);
+        }
+        return interdites.length << 6;
+    }
+
+    /**
+     * Change la saturation du voisin {@code v}, en le déplaçant de godet s'il n'est pas colorié.
+     */
+    private void changerSaturation(int v, int delta) {
+        if (couleurs[v] < 0) {
+            retirerGodet(v);
+            saturations[v] += delta;
+            ajouterGodet(v);
+        } else {
+            saturations[v] += delta;
+        }
+    }
+
+    /**
+     * Colorie {@code u} sans compter les voisins de chaque couleur : DSatur glouton ne revient jamais en arrière.
+     */
+    private void colorierGlouton(int u, int c) {
+        retirerGodet(u);
+        couleurs[u] = c;
+        long[] mots = interdites[c >>> 6];
+        for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+            int v = graphe.getVoisin(k);
+            if ((mots[v] & 1L << c) == 0) {
+                mots[v] |= 1L << c;
+                changerSaturation(v, 1);
+            }
+        }
+    }
+
+    private void colorier(int u, int c) {
+        retirerGodet(u);
+        couleurs[u] = c;
+        int[] nb = nbVoisins[c];
+        for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+            int v = graphe.getVoisin(k);
+            if (nb[v]++ == 0) {
+                interdites[c >>> 6][v] |= 1L << c;
+                changerSaturation(v, 1);
+            }
+        }
+    }
+
+    private void decolorier(int u) {
+        int c = couleurs[u];
+        couleurs[u] = -1;
+        int[] nb = nbVoisins[c];
+        for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+            int v = graphe.getVoisin(k);
+            if (--nb[v] == 0) {
+                interdites[c >>> 6][v] &= ~(1L << c);
+                changerSaturation(v, -1);
+            }
+        }
+        ajouterGodet(u);
+    }
+
+    /**
+     * Séparation et évaluation à partir de la clique coloriée, avec une pile explicite : l'étage p tient le sommet
+     * colorié au niveau p, la prochaine couleur à lui essayer et le nombre de couleurs utilisées avant lui.
+     * S'arrête dès qu'une coloration atteint la borne inférieure.
+     *
+     * @param nbUtilisees le nombre de couleurs utilisées par la clique (ce sont les couleurs 0..nbUtilisees-1),
+     *                    qui est aussi le nombre de sommets coloriés
+     */
+    private void explorer(int nbUtilisees) {
+        int base = nbUtilisees;
+        int[] sommets = new int[n - base];
+        int[] suivantes = new int[n - base];
+        int[] utilisees = new int[n - base];
+        int p = -1;
+        boolean descendre = true;
+        while (true) {
+            if (descendre) {
+                descendre = false;
+                // Une coloration qui utilise déjà autant de couleurs que la meilleure ne peut pas l'améliorer
+                if (nbUtilisees < nbMeilleure) {
+                    nbNoeuds++;
+                    if (base + p + 1 == n) {
+                        meilleure = couleurs.clone();
+                        nbMeilleure = nbUtilisees;
+                        if (nbMeilleure == borneInferieure)
+                            return;
+                    } else {
+                        p++;
+                        sommets[p] = choisirSommet();
+                        suivantes[p] = 0;
+                        utilisees[p] = nbUtilisees;
+                    }
+                }
+                if (p < 0)
+                    return;
+            }
+            int u = sommets[p];
+            if (couleurs[u] >= 0)
+                decolorier(u);
+            // Une nouvelle couleur n'est essayée que si elle donne encore une coloration meilleure que la meilleure connue
+            int limite = Math.min(utilisees[p], nbMeilleure - 2);
+            int c = suivantes[p];
+            while (c <= limite && estInterdite(u, c))
+                c++;
+            if (c <= limite) {
+                colorier(u, c);
+                suivantes[p] = c + 1;
+                nbUtilisees = Math.max(utilisees[p], c + 1);
+                descendre = true;
+            } else if (--p < 0) {
+                return;
+            }
+        }
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return une coloration propre optimale
+     */
+    public Coloration getColoration() {
+        return new Coloration(graphe, meilleure.clone());
+    }
+
+    /**
+     * @return le nombre chromatique du graphe
+     */
+    public int getNbCouleurs() {
+        return nbMeilleure;
+    }
+
+    /**
+     * @return la taille de la plus grande clique, qui minore le nombre de couleurs
+     */
+    public int getBorneInferieure() {
+        return borneInferieure;
+    }
+
+    /**
+     * @return le nombre de colorations partielles examinées par la séparation et évaluation
+     */
+    public long getNbNoeuds() {
+        return nbNoeuds;
+    }
+}
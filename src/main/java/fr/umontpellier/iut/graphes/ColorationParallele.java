@@ -0,0 +1,116 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Coloration propre d'un {@link GrapheCompact} en parallèle par l'algorithme de Jones–Plassmann, pour les très
+ * grands graphes.
+ * <p>
+ * Chaque sommet reçoit une priorité pseudo-aléatoire tirée de la graine. Un sommet est colorié dès que tous ses
+ * voisins plus prioritaires le sont, avec la plus petite couleur qu'ils n'utilisent pas ; les sommets coloriés
+ * ensemble à chaque tour forment donc un ensemble indépendant et sont traités en parallèle. Chaque sommet tient le
+ * compte de ses voisins plus prioritaires pas encore coloriés : quand il tombe à zéro, le sommet entre dans le tour
+ * suivant. La couleur d'un sommet ne dépend que des couleurs de ses voisins plus prioritaires, si bien que le
+ * résultat ne dépend que de la graine, et pas du nombre de fils d'exécution ni de l'ordre dans lequel ils
+ * travaillent. Comme la coloration gloutonne, elle utilise au plus degré maximum + 1 couleurs.
+ */
+public final class ColorationParallele {
+    private ColorationParallele() {
+    }
+
+    /**
+     * Colorie le graphe dans un pool de {@code parallelisme} fils d'exécution créé pour l'occasion.
+     */
+    public static Coloration calculer(GrapheCompact graphe, long graine, int parallelisme) {
+        ForkJoinPool pool = new ForkJoinPool(parallelisme);
+        try {
+            return calculer(graphe, graine, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Colorie le graphe en parallèle dans {@code pool}.
+     */
+    public static Coloration calculer(GrapheCompact graphe, long graine, ForkJoinPool pool) {
+        int n = graphe.getNbSommets();
+        long[] priorites = new long[n];
+        int[] couleurs = new int[n];
+        AtomicIntegerArray nbEnAttente = new AtomicIntegerArray(n);
+        return pool.submit(() -> {
+            IntStream.range(0, n).parallel().forEach(u -> priorites[u] = melanger(graine, u));
+            int[] tour = IntStream.range(0, n).parallel().filter(u -> {
+                int nb = 0;
+                for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++)
+                    if (estAvant(priorites, graphe.getVoisin(k), u))
+                        nb++;
+                nbEnAttente.set(u, nb);
+                return nb == 0;
+            }).toArray();
+            while (tour.length > 0) {
+                tour = IntStream.of(tour).parallel().flatMap(u -> {
+                    couleurs[u] = plusPetiteCouleurLibre(graphe, priorites, couleurs, u);
+                    int[] prets = null;
+                    int nbPrets = 0;
+                    for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                        int v = graphe.getVoisin(k);
+                        if (estAvant(priorites, u, v) && nbEnAttente.decrementAndGet(v) == 0) {
+                            if (prets == null)
+                                prets = new int[graphe.degre(u)];
+                            prets[nbPrets++] = v;
+                        }
+                    }
+                    return nbPrets == 0 ? IntStream.empty() : IntStream.of(prets).limit(nbPrets);
+                }).toArray();
+            }
+            return new Coloration(graphe, couleurs);
+        }).join();
+    }
+
+    /**
+     * @return true si {@code u} est plus prioritaire que {@code v} (à priorité égale, le plus petit identifiant)
+     */
+    private static boolean estAvant(long[] priorites, int u, int v) {
+        return priorites[u] > priorites[v] || priorites[u] == priorites[v] && u < v;
+    }
+
+    /**
+     * @return la plus petite couleur qu'aucun voisin plus prioritaire que {@code u} (tous déjà coloriés) n'utilise
+     */
+    private static int plusPetiteCouleurLibre(GrapheCompact graphe, long[] priorites, int[] couleurs, int u) {
+        int degre = graphe.degre(u);
+        if (degre < 64) {
+            long interdites = 0;
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int v = graphe.getVoisin(k);
+                if (estAvant(priorites, v, u) && couleurs[v] <= degre)
+                    interdites |= 1L << couleurs[v];
+            }
+            return Long.numberOfTrailingZeros(~interdites);
+        }
+        long[] interdites = new long[(degre + 64) >>> 6];
+        for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+            int v = graphe.getVoisin(k);
+            if (estAvant(priorites, v, u) && couleurs[v] <= degre)
+                interdites[couleurs[v] >>> 6] |= 1L << couleurs[v];
+        }
+        int w = 0;
+        while (interdites[w] == -1L)
+            w++;
+        return w << 6 | Long.numberOfTrailingZeros(~interdites[w]);
+    }
+
+    /**
+     * Priorité pseudo-aléatoire du sommet {@code u} (mélange SplitMix64), qui ne dépend que de la graine et de
+     * {@code u} pour que chaque fil d'exécution puisse la calculer sans tirage partagé.
+     */
+    private static long melanger(long graine, int u) {
+        long z = graine + (u + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
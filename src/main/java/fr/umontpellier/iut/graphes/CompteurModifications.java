@@ -0,0 +1,30 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Compteur de modifications d'un {@link Graphe}, incrémenté par le graphe lui-même et par chacun de ses sommets
+ * quand leurs voisins ou leur surcout changent, y compris à travers un autre graphe qui partage les mêmes sommets.
+ * Le graphe sait ainsi en O(1) si les résultats qu'il a calculés sont encore à jour.
+ * <p>
+ * Les changements des joueurs des sommets sont comptés à part : ils ne touchent pas la représentation compacte,
+ * mais changent les sommets retenus par un filtre comme celui de {@link fr.umontpellier.iut.trains.Jeu#getGraphe}.
+ */
+final class CompteurModifications {
+    private int valeur;
+    private int valeurJoueurs;
+
+    void incrementer() {
+        valeur++;
+    }
+
+    int getValeur() {
+        return valeur;
+    }
+
+    void incrementerJoueurs() {
+        valeurJoueurs++;
+    }
+
+    int getValeurJoueurs() {
+        return valeurJoueurs;
+    }
+}
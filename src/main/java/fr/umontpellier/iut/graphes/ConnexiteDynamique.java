@@ -0,0 +1,580 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connexité dynamique d'un graphe dont on ajoute et supprime des arêtes (algorithme de Holm, de Lichtenberg
+ * et Thorup) : chaque mise à jour coûte O(log² n) amorti et chaque requête O(log n).
+ * <p>
+ * Chaque arête a un niveau, qui ne fait qu'augmenter et reste inférieur à log n. Pour chaque niveau i, une forêt
+ * F_i couvre les arêtes d'arbre de niveau au moins i (F_0 est une forêt couvrante du graphe) ; les arêtes qui ne
+ * sont pas dans F_0 sont rangées au niveau de chacune de leurs extrémités. Quand une arête d'arbre est supprimée,
+ * on cherche une arête de remplacement en partant de son niveau et en descendant, en montant d'un niveau
+ * les arêtes examinées du plus petit des deux morceaux, ce qui borne le travail total.
+ * <p>
+ * Chaque forêt est représentée par des arbres de tour eulérien : la séquence d'un arbre contient un noeud
+ * par sommet et deux noeuds (un par sens) par arête, rangée dans un treap à clés implicites avec pointeurs
+ * vers les parents. Les noeuds portent deux marques, agrégées dans les sous-arbres du treap, pour trouver
+ * en O(log n) les arêtes d'arbre du niveau et les sommets qui ont des arêtes hors arbre à ce niveau.
+ * Tous les noeuds, arêtes et listes sont stockés dans des tableaux d'entiers.
+ * <p>
+ * Les sommets sont les entiers renvoyés par {@link #ajouterSommet()} ; le numéro d'un sommet supprimé est
+ * réutilisé par l'ajout suivant, si bien que la mémoire ne dépend que du plus grand nombre de sommets présents
+ * en même temps, même après des millions de suppressions et de rétablissements.
+ */
+public class ConnexiteDynamique {
+    /**
+     * Marque d'un noeud d'arc qui porte une arête d'arbre dont le niveau est celui de la forêt.
+     */
+    private static final int ARBRE = 1;
+    /**
+     * Marque d'un noeud de sommet qui a des arêtes hors arbre au niveau de la forêt.
+     */
+    private static final int HORS_ARBRE = 2;
+
+    // Noeuds des treaps
+    private int[] gauches = new int[16];
+    private int[] droites = new int[16];
+    private int[] parents = new int[16];
+    private int[] priorites = new int[16];
+    private int[] tailles = new int[16];
+    private int[] marques = new int[16];
+    private int[] agregats = new int[16];
+    /**
+     * Sommet d'un noeud de sommet, ou -(a+1) pour un noeud d'arc de l'arête a.
+     */
+    private int[] elements = new int[16];
+    private int nbNoeuds;
+    private int[] noeudsLibres = new int[16];
+    private int nbNoeudsLibres;
+    private int graine = 0x2545F491;
+    private int coupeGauche, coupeDroite;
+
+    // Sommets
+    private int capaciteSommets = 16;
+    private int nbIdentifiants;
+    private boolean[] presents = new boolean[16];
+    private int nbSommets;
+    /**
+     * Numéros des sommets supprimés, réutilisés par {@link #ajouterSommet()}.
+     */
+    private int[] sommetsLibres = new int[16];
+    private int nbSommetsLibres;
+    /**
+     * Pour chaque niveau, noeud de chaque sommet dans la forêt de ce niveau (-1 s'il n'est pas encore créé).
+     */
+    private final List<int[]> noeudsSommets = new ArrayList<>();
+    /**
+     * Pour chaque niveau, première incidence hors arbre de chaque sommet à ce niveau (-1 si aucune).
+     */
+    private final List<int[]> premieresIncidences = new ArrayList<>();
+
+    // Arêtes : l'arête a relie extremites[2a] et extremites[2a+1] ; l'incidence 2a+k est l'arête a vue depuis
+    // extremites[2a+k], chaînée dans la liste des arêtes hors arbre de son niveau
+    private int[] extremites = new int[32];
+    private int[] niveaux = new int[16];
+    private boolean[] dansArbre = new boolean[16];
+    /**
+     * Noeuds d'arc d'une arête d'arbre dans chaque forêt : {@code arcs[a][2i]} et {@code arcs[a][2i+1]}.
+     */
+    private int[][] arcs = new int[16][];
+    private int[] suivants = new int[32];
+    private int[] precedents = new int[32];
+    private int nbAretesAllouees;
+    private int[] aretesLibres = new int[16];
+    private int nbAretesLibres;
+    private final Map<Long, Integer> aretes = new HashMap<>();
+    private int nbAretesArbre;
+
+    /**
+     * Ajoute un sommet isolé.
+     *
+     * @return le numéro du nouveau sommet (celui d'un sommet supprimé s'il y en a)
+     */
+    public int ajouterSommet() {
+        if (nbSommetsLibres > 0) {
+            int u = sommetsLibres[--nbSommetsLibres];
+            presents[u] = true;
+            nbSommets++;
+            noeudSommet(u, 0);
+            return u;
+        }
+        if (nbIdentifiants == capaciteSommets) {
+            capaciteSommets *= 2;
+            presents = Arrays.copyOf(presents, capaciteSommets);
+            for (int i = 0; i < noeudsSommets.size(); i++) {
+                noeudsSommets.set(i, agrandir(noeudsSommets.get(i), capaciteSommets));
+                premieresIncidences.set(i, agrandir(premieresIncidences.get(i), capaciteSommets));
+            }
+        }
+        int u = nbIdentifiants++;
+        presents[u] = true;
+        nbSommets++;
+        noeudSommet(u, 0);
+        return u;
+    }
+
+    private static int[] agrandir(int[] tableau, int taille) {
+        int ancienne = tableau.length;
+        tableau = Arrays.copyOf(tableau, taille);
+        Arrays.fill(tableau, ancienne, taille, -1);
+        return tableau;
+    }
+
+    /**
+     * Supprime le sommet {@code u}, qui ne doit plus avoir d'arêtes. Ses noeuds dans les forêts sont libérés
+     * et son numéro pourra être redonné par {@link #ajouterSommet()}.
+     */
+    public void supprimerSommet(int u) {
+        if (!presents[u])
+            return;
+        for (int i = 0; i < noeudsSommets.size(); i++) {
+            int x = noeudsSommets.get(i)[u];
+            if (x >= 0 && tailles[racine(x)] > 1 || premieresIncidences.get(i)[u] >= 0)
+                throw new IllegalArgumentException("Le sommet " + u + " a encore des arêtes");
+        }
+        for (int i = 0; i < noeudsSommets.size(); i++) {
+            int[] noeuds = noeudsSommets.get(i);
+            if (noeuds[u] >= 0) {
+                libererNoeud(noeuds[u]);
+                noeuds[u] = -1;
+            }
+        }
+        presents[u] = false;
+        nbSommets--;
+        sommetsLibres = agrandirSiPlein(sommetsLibres, nbSommetsLibres);
+        sommetsLibres[nbSommetsLibres++] = u;
+    }
+
+    public int getNbSommets() {
+        return nbSommets;
+    }
+
+    /**
+     * @return le nombre de numéros de sommets attribués jusqu'ici, qui dimensionne les tableaux indexés
+     * par sommet (les numéros des sommets supprimés sont réutilisés)
+     */
+    public int getNbIdentifiants() {
+        return nbIdentifiants;
+    }
+
+    public int getNbAretes() {
+        return aretes.size();
+    }
+
+    /**
+     * @return le nombre de classes de connexité (chaque arête de la forêt couvrante en réunit deux)
+     */
+    public int getNbClasses() {
+        return nbSommets - nbAretesArbre;
+    }
+
+    public boolean estConnexe() {
+        return getNbClasses() <= 1;
+    }
+
+    /**
+     * @return true si un chemin relie {@code u} et {@code v}
+     */
+    public boolean sontConnectes(int u, int v) {
+        return racine(noeudSommet(u, 0)) == racine(noeudSommet(v, 0));
+    }
+
+    /**
+     * @return le nombre de sommets de la classe de connexité de {@code u}
+     */
+    public int getTailleClasse(int u) {
+        // Un arbre à k sommets a une séquence de k + 2(k-1) noeuds
+        return (tailles[racine(noeudSommet(u, 0))] + 2) / 3;
+    }
+
+    public boolean contientArete(int u, int v) {
+        return aretes.containsKey(cle(u, v));
+    }
+
+    private static long cle(int u, int v) {
+        return ((long) Math.min(u, v) << 32) | Math.max(u, v);
+    }
+
+    /**
+     * Ajoute l'arête {@code uv} (rien n'est fait pour une boucle ou une arête déjà présente).
+     *
+     * @return true si l'arête a été ajoutée
+     */
+    public boolean ajouterArete(int u, int v) {
+        if (u == v || aretes.containsKey(cle(u, v)))
+            return false;
+        int a = nouvelleArete(u, v);
+        aretes.put(cle(u, v), a);
+        if (racine(noeudSommet(u, 0)) != racine(noeudSommet(v, 0))) {
+            dansArbre[a] = true;
+            nbAretesArbre++;
+            lier(0, a);
+        } else {
+            ajouterIncidences(a, 0);
+        }
+        return true;
+    }
+
+    /**
+     * Supprime l'arête {@code uv} et, si c'était une arête de la forêt couvrante, cherche une arête
+     * qui reconnecte les deux morceaux.
+     *
+     * @return true si l'arête était présente
+     */
+    public boolean supprimerArete(int u, int v) {
+        Integer arete = aretes.remove(cle(u, v));
+        if (arete == null)
+            return false;
+        int a = arete;
+        int niveau = niveaux[a];
+        if (!dansArbre[a]) {
+            retirerIncidences(a, niveau);
+        } else {
+            for (int i = 0; i <= niveau; i++)
+                delier(i, a);
+            dansArbre[a] = false;
+            nbAretesArbre--;
+            for (int i = niveau; i >= 0; i--)
+                if (remplacer(u, v, i))
+                    break;
+        }
+        aretesLibres = agrandirSiPlein(aretesLibres, nbAretesLibres);
+        aretesLibres[nbAretesLibres++] = a;
+        return true;
+    }
+
+    /**
+     * Cherche au niveau {@code i} une arête qui reconnecte les morceaux de {@code u} et {@code v} dans F_i.
+     * Les arêtes d'arbre de niveau i du plus petit morceau montent au niveau i+1, ainsi que les arêtes hors
+     * arbre examinées qui ne conviennent pas.
+     *
+     * @return true si une arête de remplacement a été trouvée et ajoutée aux forêts
+     */
+    private boolean remplacer(int u, int v, int i) {
+        int ru = racine(noeudSommet(u, i)), rv = racine(noeudSommet(v, i));
+        int t = tailles[ru] <= tailles[rv] ? ru : rv;
+        int x;
+        while ((x = chercher(t, ARBRE)) >= 0) {
+            int f = -elements[x] - 1;
+            marquer(x, ARBRE, false);
+            niveaux[f] = i + 1;
+            lier(i + 1, f);
+        }
+        int[] premieres = premieresIncidences.get(i);
+        while ((x = chercher(t, HORS_ARBRE)) >= 0) {
+            int w = elements[x];
+            while (premieres[w] >= 0) {
+                int incidence = premieres[w];
+                int f = incidence >> 1;
+                int y = extremites[incidence ^ 1];
+                retirerIncidences(f, i);
+                if (racine(noeudSommet(y, i)) != t) {
+                    dansArbre[f] = true;
+                    nbAretesArbre++;
+                    for (int j = 0; j <= i; j++)
+                        lier(j, f);
+                    return true;
+                }
+                niveaux[f] = i + 1;
+                ajouterIncidences(f, i + 1);
+            }
+        }
+        return false;
+    }
+
+    private int nouvelleArete(int u, int v) {
+        int a;
+        if (nbAretesLibres > 0) {
+            a = aretesLibres[--nbAretesLibres];
+        } else {
+            a = nbAretesAllouees++;
+            if (a == niveaux.length) {
+                int taille = 2 * a;
+                niveaux = Arrays.copyOf(niveaux, taille);
+                dansArbre = Arrays.copyOf(dansArbre, taille);
+                arcs = Arrays.copyOf(arcs, taille);
+                extremites = Arrays.copyOf(extremites, 2 * taille);
+                suivants = Arrays.copyOf(suivants, 2 * taille);
+                precedents = Arrays.copyOf(precedents, 2 * taille);
+            }
+        }
+        extremites[2 * a] = u;
+        extremites[2 * a + 1] = v;
+        niveaux[a] = 0;
+        dansArbre[a] = false;
+        return a;
+    }
+
+    private static int[] agrandirSiPlein(int[] tableau, int taille) {
+        return taille < tableau.length ? tableau : Arrays.copyOf(tableau, 2 * tableau.length);
+    }
+
+    private void preparerNiveau(int i) {
+        while (noeudsSommets.size() <= i) {
+            int[] noeuds = new int[capaciteSommets];
+            int[] premieres = new int[capaciteSommets];
+            Arrays.fill(noeuds, -1);
+            Arrays.fill(premieres, -1);
+            noeudsSommets.add(noeuds);
+            premieresIncidences.add(premieres);
+        }
+    }
+
+    /**
+     * @return le noeud du sommet {@code u} dans la forêt du niveau {@code i}, créé seul dans son arbre si besoin
+     */
+    private int noeudSommet(int u, int i) {
+        preparerNiveau(i);
+        int[] noeuds = noeudsSommets.get(i);
+        if (noeuds[u] < 0)
+            noeuds[u] = nouveauNoeud(u);
+        return noeuds[u];
+    }
+
+    // Listes des arêtes hors arbre
+
+    private void ajouterIncidences(int a, int i) {
+        preparerNiveau(i);
+        int[] premieres = premieresIncidences.get(i);
+        for (int k = 0; k < 2; k++) {
+            int incidence = 2 * a + k;
+            int u = extremites[incidence];
+            int tete = premieres[u];
+            suivants[incidence] = tete;
+            precedents[incidence] = -1;
+            if (tete >= 0)
+                precedents[tete] = incidence;
+            else
+                marquer(noeudSommet(u, i), HORS_ARBRE, true);
+            premieres[u] = incidence;
+        }
+    }
+
+    private void retirerIncidences(int a, int i) {
+        int[] premieres = premieresIncidences.get(i);
+        for (int k = 0; k < 2; k++) {
+            int incidence = 2 * a + k;
+            int u = extremites[incidence];
+            if (precedents[incidence] >= 0)
+                suivants[precedents[incidence]] = suivants[incidence];
+            else
+                premieres[u] = suivants[incidence];
+            if (suivants[incidence] >= 0)
+                precedents[suivants[incidence]] = precedents[incidence];
+            if (premieres[u] < 0)
+                marquer(noeudSommet(u, i), HORS_ARBRE, false);
+        }
+    }
+
+    // Arbres de tour eulérien
+
+    /**
+     * Ajoute l'arête d'arbre {@code a} à la forêt du niveau {@code i} (ses extrémités doivent être dans
+     * deux arbres différents de cette forêt).
+     */
+    private void lier(int i, int a) {
+        int u = extremites[2 * a], v = extremites[2 * a + 1];
+        int tu = reenraciner(noeudSommet(u, i));
+        int tv = reenraciner(noeudSommet(v, i));
+        int aller = nouveauNoeud(-a - 1), retour = nouveauNoeud(-a - 1);
+        if (arcs[a] == null || arcs[a].length < 2 * i + 2)
+            arcs[a] = arcs[a] == null ? new int[Math.max(4, 2 * i + 2)] : Arrays.copyOf(arcs[a], Math.max(2 * arcs[a].length, 2 * i + 2));
+        arcs[a][2 * i] = aller;
+        arcs[a][2 * i + 1] = retour;
+        if (niveaux[a] == i) {
+            marques[aller] = ARBRE;
+            agregats[aller] = ARBRE;
+        }
+        int racine = fusionner(fusionner(fusionner(tu, aller), tv), retour);
+        parents[racine] = -1;
+    }
+
+    /**
+     * Retire l'arête d'arbre {@code a} de la forêt du niveau {@code i}. Si la séquence est A (u,v) B (v,u) C,
+     * B est le tour d'un des deux morceaux et AC celui de l'autre.
+     */
+    private void delier(int i, int a) {
+        int premier = arcs[a][2 * i], second = arcs[a][2 * i + 1];
+        int racine = racine(premier);
+        int p = rang(premier), q = rang(second);
+        if (p > q) {
+            int tmp = premier;
+            premier = second;
+            second = tmp;
+            tmp = p;
+            p = q;
+            q = tmp;
+        }
+        separer(racine, p);
+        int debut = coupeGauche;
+        separer(coupeDroite, 1);
+        separer(coupeDroite, q - p - 1);
+        int milieu = coupeGauche;
+        separer(coupeDroite, 1);
+        int fin = coupeDroite;
+        int reste = fusionner(debut, fin);
+        if (reste >= 0)
+            parents[reste] = -1;
+        if (milieu >= 0)
+            parents[milieu] = -1;
+        libererNoeud(premier);
+        libererNoeud(second);
+    }
+
+    /**
+     * Fait tourner la séquence de l'arbre de {@code x} pour qu'elle commence par {@code x}.
+     *
+     * @return la racine du treap de la séquence
+     */
+    private int reenraciner(int x) {
+        int racine = racine(x);
+        separer(racine, rang(x));
+        int avant = coupeGauche;
+        int racineRotation = fusionner(coupeDroite, avant);
+        parents[racineRotation] = -1;
+        return racineRotation;
+    }
+
+    // Treaps à clés implicites
+
+    private int nouveauNoeud(int element) {
+        int x;
+        if (nbNoeudsLibres > 0) {
+            x = noeudsLibres[--nbNoeudsLibres];
+        } else {
+            x = nbNoeuds++;
+            if (x == gauches.length) {
+                int taille = 2 * x;
+                gauches = Arrays.copyOf(gauches, taille);
+                droites = Arrays.copyOf(droites, taille);
+                parents = Arrays.copyOf(parents, taille);
+                priorites = Arrays.copyOf(priorites, taille);
+                tailles = Arrays.copyOf(tailles, taille);
+                marques = Arrays.copyOf(marques, taille);
+                agregats = Arrays.copyOf(agregats, taille);
+                elements = Arrays.copyOf(elements, taille);
+            }
+        }
+        gauches[x] = droites[x] = parents[x] = -1;
+        // Générateur xorshift : les priorités n'ont besoin que d'être bien mélangées
+        graine ^= graine << 13;
+        graine ^= graine >>> 17;
+        graine ^= graine << 5;
+        priorites[x] = graine;
+        tailles[x] = 1;
+        marques[x] = agregats[x] = 0;
+        elements[x] = element;
+        return x;
+    }
+
+    private void libererNoeud(int x) {
+        noeudsLibres = agrandirSiPlein(noeudsLibres, nbNoeudsLibres);
+        noeudsLibres[nbNoeudsLibres++] = x;
+    }
+
+    private int taille(int x) {
+        return x < 0 ? 0 : tailles[x];
+    }
+
+    private int agregat(int x) {
+        return x < 0 ? 0 : agregats[x];
+    }
+
+    private void mettreAJour(int x) {
+        int g = gauches[x], d = droites[x];
+        tailles[x] = 1 + taille(g) + taille(d);
+        agregats[x] = marques[x] | agregat(g) | agregat(d);
+        if (g >= 0)
+            parents[g] = x;
+        if (d >= 0)
+            parents[d] = x;
+    }
+
+    private int fusionner(int a, int b) {
+        if (a < 0)
+            return b;
+        if (b < 0)
+            return a;
+        if (priorites[a] > priorites[b]) {
+            droites[a] = fusionner(droites[a], b);
+            mettreAJour(a);
+            return a;
+        }
+        gauches[b] = fusionner(a, gauches[b]);
+        mettreAJour(b);
+        return b;
+    }
+
+    /**
+     * Coupe le treap {@code t} entre ses {@code k} premiers noeuds ({@code coupeGauche}) et les autres
+     * ({@code coupeDroite}), dont les racines n'ont plus de parent.
+     */
+    private void separer(int t, int k) {
+        couper(t, k);
+        if (coupeGauche >= 0)
+            parents[coupeGauche] = -1;
+        if (coupeDroite >= 0)
+            parents[coupeDroite] = -1;
+    }
+
+    private void couper(int t, int k) {
+        if (t < 0) {
+            coupeGauche = coupeDroite = -1;
+            return;
+        }
+        if (taille(gauches[t]) >= k) {
+            couper(gauches[t], k);
+            gauches[t] = coupeDroite;
+            mettreAJour(t);
+            coupeDroite = t;
+        } else {
+            couper(droites[t], k - taille(gauches[t]) - 1);
+            droites[t] = coupeGauche;
+            mettreAJour(t);
+            coupeGauche = t;
+        }
+    }
+
+    private int racine(int x) {
+        while (parents[x] >= 0)
+            x = parents[x];
+        return x;
+    }
+
+    /**
+     * @return la position de {@code x} dans la séquence de son arbre
+     */
+    private int rang(int x) {
+        int r = taille(gauches[x]);
+        while (parents[x] >= 0) {
+            int p = parents[x];
+            if (droites[p] == x)
+                r += taille(gauches[p]) + 1;
+            x = p;
+        }
+        return r;
+    }
+
+    private void marquer(int x, int marque, boolean valeur) {
+        marques[x] = valeur ? marques[x] | marque : marques[x] & ~marque;
+        for (; x >= 0; x = parents[x])
+            agregats[x] = marques[x] | agregat(gauches[x]) | agregat(droites[x]);
+    }
+
+    /**
+     * @return un noeud portant {@code marque} dans le treap de racine {@code t}, ou -1 s'il n'y en a pas
+     */
+    private int chercher(int t, int marque) {
+        if ((agregat(t) & marque) == 0)
+            return -1;
+        int x = t;
+        while ((marques[x] & marque) == 0)
+            x = (agregat(gauches[x]) & marque) != 0 ? gauches[x] : droites[x];
+        return x;
+    }
+}
@@ -0,0 +1,81 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Classes de connexité d'un ensemble de sommets qui ne fait que grandir (par exemple les tuiles où un joueur
+ * a posé un rail), maintenues par un {@link UnionFind} au fur et à mesure des ajouts.
+ * Les éléments sont des entiers 0..n-1 ; seuls ceux qui ont été ajoutés font partie du graphe.
+ * Toutes les opérations sont en temps quasi constant amorti.
+ */
+public class ConnexiteIncrementale {
+    private final UnionFind classes;
+    private final boolean[] presents;
+    private int nbPresents;
+    private int nbComposantes;
+
+    public ConnexiteIncrementale(int n) {
+        classes = new UnionFind(n);
+        presents = new boolean[n];
+    }
+
+    /**
+     * Ajoute le sommet {@code u} (seul dans sa classe).
+     *
+     * @return true si le sommet n'était pas déjà présent
+     */
+    public boolean ajouter(int u) {
+        if (presents[u])
+            return false;
+        presents[u] = true;
+        nbPresents++;
+        nbComposantes++;
+        return true;
+    }
+
+    /**
+     * Ajoute une arête entre deux sommets présents (rien n'est fait si l'un des deux est absent).
+     *
+     * @return true si l'arête a réuni deux classes
+     */
+    public boolean relier(int u, int v) {
+        if (!presents[u] || !presents[v] || !classes.unir(u, v))
+            return false;
+        nbComposantes--;
+        return true;
+    }
+
+    public boolean contient(int u) {
+        return presents[u];
+    }
+
+    public int getNbSommets() {
+        return nbPresents;
+    }
+
+    /**
+     * @return le nombre de classes de connexité parmi les sommets présents
+     */
+    public int getNbComposantes() {
+        return nbComposantes;
+    }
+
+    /**
+     * @return true si les sommets présents forment un graphe connexe (vrai aussi s'il n'y en a aucun)
+     */
+    public boolean estConnexe() {
+        return nbComposantes <= 1;
+    }
+
+    /**
+     * @return le représentant de la classe de {@code u}, ou -1 si {@code u} n'est pas présent
+     */
+    public int getComposante(int u) {
+        return presents[u] ? classes.trouver(u) : -1;
+    }
+
+    /**
+     * @return true si {@code u} et {@code v} sont présents et dans la même classe
+     */
+    public boolean memeComposante(int u, int v) {
+        return presents[u] && presents[v] && classes.memeClasse(u, v);
+    }
+}
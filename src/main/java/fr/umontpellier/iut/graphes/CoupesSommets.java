@@ -0,0 +1,81 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Calculs de connexité entre deux sommets d'un {@link GrapheCompact} par flot maximum.
+ * Chaque sommet {@code u} est dédoublé en un noeud d'entrée {@code 2u} et un noeud de sortie {@code 2u+1}
+ * reliés par un arc de capacité 1, et chaque arête donne deux arcs de capacité n (jamais coupés par une coupe minimale).
+ * Une coupe minimale du réseau correspond donc à un ensemble minimum de sommets à supprimer,
+ * et un flot maximum à un ensemble maximum de chemins intérieurement disjoints (théorème de Menger).
+ * Le réseau est construit une fois et réutilisé pour toutes les requêtes.
+ */
+public class CoupesSommets {
+    private final GrapheCompact graphe;
+    private final FlotMaximal reseau;
+    /**
+     * Arc du noeud de sortie de u vers le noeud d'entrée de son voisin, pour chaque position de
+     * voisin dans le tableau des voisins du graphe.
+     */
+    private final int[] arcsAretes;
+
+    public CoupesSommets(GrapheCompact graphe) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        reseau = new FlotMaximal(2 * n);
+        for (int u = 0; u < n; u++)
+            reseau.ajouterArc(2 * u, 2 * u + 1, 1);
+        arcsAretes = new int[2 * graphe.getNbAretes()];
+        for (int u = 0; u < n; u++)
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++)
+                arcsAretes[k] = reseau.ajouterArc(2 * u + 1, 2 * graphe.getVoisin(k), Math.max(n, 1));
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return le nombre maximum de chemins de {@code s} à {@code t} qui n'ont aucun sommet en commun
+     * à part {@code s} et {@code t} (une éventuelle arête directe compte pour un chemin)
+     */
+    public int getNbCheminsDisjoints(int s, int t) {
+        if (s == t)
+            return 0;
+        boolean voisins = graphe.sontVoisins(s, t);
+        long flot = calculerSansAreteDirecte(s, t, voisins);
+        return (int) flot + (voisins ? 1 : 0);
+    }
+
+    /**
+     * @return les identifiants d'un ensemble de sommets de taille minimum, ne contenant ni {@code s} ni {@code t},
+     * dont la suppression déconnecte {@code s} de {@code t}. Le tableau est vide si {@code s} et {@code t}
+     * ne sont pas dans la même classe de connexité, et null si aucun tel ensemble n'existe
+     * ({@code s} et {@code t} égaux ou voisins).
+     */
+    public int[] getCoupeMinimale(int s, int t) {
+        if (s == t || graphe.sontVoisins(s, t))
+            return null;
+        long flot = calculerSansAreteDirecte(s, t, false);
+        int[] coupe = new int[(int) flot];
+        int taille = 0;
+        for (int u = 0; u < graphe.getNbSommets(); u++)
+            if (u != s && u != t && reseau.estCoteSource(2 * u) && !reseau.estCoteSource(2 * u + 1))
+                coupe[taille++] = u;
+        return Arrays.copyOf(coupe, taille);
+    }
+
+    private long calculerSansAreteDirecte(int s, int t, boolean voisins) {
+        if (!voisins)
+            return reseau.calculer(2 * s + 1, 2 * t);
+        int ks = graphe.positionVoisin(s, t);
+        int kt = graphe.positionVoisin(t, s);
+        int capacite = reseau.getCapacite(arcsAretes[ks]);
+        reseau.setCapacite(arcsAretes[ks], 0);
+        reseau.setCapacite(arcsAretes[kt], 0);
+        long flot = reseau.calculer(2 * s + 1, 2 * t);
+        reseau.setCapacite(arcsAretes[ks], capacite);
+        reseau.setCapacite(arcsAretes[kt], capacite);
+        return flot;
+    }
+}
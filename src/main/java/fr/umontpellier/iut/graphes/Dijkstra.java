@@ -0,0 +1,105 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Algorithme de Dijkstra sur un {@link GrapheCompact} pondéré par les surcouts des sommets :
+ * le coût d'un parcours est la somme des surcouts des sommets dans lesquels on entre (le sommet de départ
+ * n'est pas compté). La file de priorité est un {@link TasBinaireIndexe} avec diminution de clé,
+ * et le calcul peut partir de plusieurs sources à la fois (distance à l'ensemble le plus proche).
+ * Les tableaux sont alloués une fois et réutilisés d'un calcul à l'autre.
+ */
+public class Dijkstra {
+    /**
+     * Distance des sommets non atteints.
+     */
+    public static final int INFINI = Integer.MAX_VALUE;
+
+    private final GrapheCompact graphe;
+    private final int[] distances;
+    private final int[] predecesseurs;
+    private final TasBinaireIndexe tas;
+
+    public Dijkstra(GrapheCompact graphe) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        distances = new int[n];
+        predecesseurs = new int[n];
+        tas = new TasBinaireIndexe(n);
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * Calcule les distances depuis les sources vers tous les sommets.
+     */
+    public void calculer(int... sources) {
+        calculer(sources, sources.length, -1);
+    }
+
+    /**
+     * Calcule les distances depuis les {@code nbSources} premiers identifiants de {@code sources}.
+     * Si {@code cible} est positif, le calcul s'arrête dès que la distance de {@code cible} est définitive
+     * (les distances des autres sommets peuvent alors être trop grandes).
+     *
+     * @return la distance de {@code cible} (ou INFINI si {@code cible} est négatif ou non atteint)
+     */
+    public int calculer(int[] sources, int nbSources, int cible) {
+        Arrays.fill(distances, INFINI);
+        Arrays.fill(predecesseurs, -1);
+        tas.vider();
+        for (int k = 0; k < nbSources; k++) {
+            distances[sources[k]] = 0;
+            tas.insererOuDiminuer(sources[k], 0);
+        }
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            if (u == cible) {
+                tas.vider();
+                return distances[u];
+            }
+            int du = distances[u];
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int v = graphe.getVoisin(k);
+                int dv = du + graphe.getSurcout(v);
+                if (dv < distances[v]) {
+                    distances[v] = dv;
+                    predecesseurs[v] = u;
+                    tas.insererOuDiminuer(v, dv);
+                }
+            }
+        }
+        return INFINI;
+    }
+
+    /**
+     * @return la distance de {@code u} calculée lors du dernier appel de {@code calculer}
+     */
+    public int getDistance(int u) {
+        return distances[u];
+    }
+
+    /**
+     * @return une copie des distances calculées lors du dernier appel de {@code calculer}
+     */
+    public int[] getDistances() {
+        return distances.clone();
+    }
+
+    /**
+     * @return une copie des prédécesseurs calculés lors du dernier appel de {@code calculer}
+     */
+    public int[] getPredecesseurs() {
+        return predecesseurs.clone();
+    }
+
+    /**
+     * @return le sommet qui précède {@code u} sur un plus court chemin depuis les sources (-1 pour les sources
+     * et les sommets non atteints)
+     */
+    public int getPredecesseur(int u) {
+        return predecesseurs[u];
+    }
+}
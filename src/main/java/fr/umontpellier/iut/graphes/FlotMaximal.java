@@ -0,0 +1,195 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Réseau de flot orienté à capacités entières, et calcul d'un flot maximum par l'algorithme de Dinic.
+ * Les arcs sont stockés dans des tableaux d'entiers : l'arc {@code a} va de {@code getOrigine(a)} à
+ * {@code getDestination(a)}, et son arc résiduel inverse est {@code a ^ 1}.
+ * Le même réseau peut servir à plusieurs calculs (les flots sont remis à zéro à chaque appel de {@link #calculer}).
+ */
+public class FlotMaximal {
+    private final int nbNoeuds;
+    private int nbArcs;
+    private int[] destinations;
+    private int[] suivants;
+    private int[] capacites;
+    private int[] residus;
+    /**
+     * Premier arc sortant de chaque noeud (listes chaînées dans {@code suivants}), -1 si aucun.
+     */
+    private final int[] premiers;
+    private final int[] niveaux;
+    private final int[] courants;
+    private final int[] file;
+    private final int[] pile;
+
+    public FlotMaximal(int nbNoeuds) {
+        this.nbNoeuds = nbNoeuds;
+        int capacite = 16;
+        destinations = new int[capacite];
+        suivants = new int[capacite];
+        capacites = new int[capacite];
+        residus = new int[capacite];
+        premiers = new int[nbNoeuds];
+        Arrays.fill(premiers, -1);
+        niveaux = new int[nbNoeuds];
+        courants = new int[nbNoeuds];
+        file = new int[nbNoeuds];
+        pile = new int[nbNoeuds];
+    }
+
+    public int getNbNoeuds() {
+        return nbNoeuds;
+    }
+
+    /**
+     * Ajoute un arc de {@code u} vers {@code v} (et son arc inverse de capacité nulle).
+     *
+     * @return le numéro de l'arc ajouté
+     */
+    public int ajouterArc(int u, int v, int capacite) {
+        if (nbArcs + 2 > destinations.length) {
+            int taille = 2 * destinations.length;
+            destinations = Arrays.copyOf(destinations, taille);
+            suivants = Arrays.copyOf(suivants, taille);
+            capacites = Arrays.copyOf(capacites, taille);
+            residus = Arrays.copyOf(residus, taille);
+        }
+        int a = nbArcs;
+        destinations[a] = v;
+        capacites[a] = capacite;
+        suivants[a] = premiers[u];
+        premiers[u] = a;
+        destinations[a + 1] = u;
+        capacites[a + 1] = 0;
+        suivants[a + 1] = premiers[v];
+        premiers[v] = a + 1;
+        nbArcs += 2;
+        return a;
+    }
+
+    public int getOrigine(int a) {
+        return destinations[a ^ 1];
+    }
+
+    public int getDestination(int a) {
+        return destinations[a];
+    }
+
+    public int getCapacite(int a) {
+        return capacites[a];
+    }
+
+    /**
+     * Modifie la capacité de l'arc {@code a} pour les prochains calculs.
+     */
+    public void setCapacite(int a, int capacite) {
+        capacites[a] = capacite;
+    }
+
+    /**
+     * @return le flot qui passe par l'arc {@code a} lors du dernier calcul
+     */
+    public int getFlot(int a) {
+        return capacites[a] - residus[a];
+    }
+
+    /**
+     * Calcule un flot maximum de {@code source} vers {@code puits}, en partant d'un flot nul.
+     *
+     * @return la valeur du flot maximum, qui est aussi la capacité d'une coupe minimale
+     */
+    public long calculer(int source, int puits) {
+        return calculer(source, puits, Long.MAX_VALUE);
+    }
+
+    /**
+     * Comme {@link #calculer(int, int)}, mais s'arrête dès que le flot atteint {@code limite}.
+     * Dans ce cas, {@link #estCoteSource} ne décrit pas forcément une coupe minimale.
+     */
+    public long calculer(int source, int puits, long limite) {
+        System.arraycopy(capacites, 0, residus, 0, nbArcs);
+        long flot = 0;
+        while (flot < limite && parcourirNiveaux(source, puits)) {
+            System.arraycopy(premiers, 0, courants, 0, nbNoeuds);
+            int augmentation;
+            while (flot < limite && (augmentation = augmenter(source, puits)) > 0)
+                flot += augmentation;
+        }
+        if (flot >= limite)
+            parcourirNiveaux(source, puits);
+        return flot;
+    }
+
+    /**
+     * @return true si le noeud {@code x} est accessible depuis la source dans le réseau résiduel
+     * du dernier calcul, c'est-à-dire du côté de la source dans la coupe minimale
+     */
+    public boolean estCoteSource(int x) {
+        return niveaux[x] >= 0;
+    }
+
+    /**
+     * Parcours en largeur du réseau résiduel depuis la source qui calcule le niveau de chaque noeud
+     * (-1 pour les noeuds inaccessibles).
+     *
+     * @return true si le puits est accessible
+     */
+    private boolean parcourirNiveaux(int source, int puits) {
+        Arrays.fill(niveaux, -1);
+        int debut = 0, fin = 0;
+        file[fin++] = source;
+        niveaux[source] = 0;
+        while (debut < fin) {
+            int x = file[debut++];
+            for (int a = premiers[x]; a >= 0; a = suivants[a]) {
+                int y = destinations[a];
+                if (residus[a] > 0 && niveaux[y] < 0) {
+                    niveaux[y] = niveaux[x] + 1;
+                    file[fin++] = y;
+                }
+            }
+        }
+        return niveaux[puits] >= 0;
+    }
+
+    /**
+     * Cherche de manière itérative un chemin augmentant dans le graphe de niveaux en suivant
+     * les arcs courants, et pousse le maximum de flot le long de ce chemin.
+     *
+     * @return la quantité de flot poussée (0 si le flot est bloquant)
+     */
+    private int augmenter(int source, int puits) {
+        int haut = 0;
+        int x = source;
+        while (true) {
+            if (x == puits) {
+                int minimum = Integer.MAX_VALUE;
+                for (int k = 0; k < haut; k++)
+                    minimum = Math.min(minimum, residus[pile[k]]);
+                for (int k = 0; k < haut; k++) {
+                    residus[pile[k]] -= minimum;
+                    residus[pile[k] ^ 1] += minimum;
+                }
+                return minimum;
+            }
+            int a = courants[x];
+            while (a >= 0 && (residus[a] == 0 || niveaux[destinations[a]] != niveaux[x] + 1))
+                a = suivants[a];
+            courants[x] = a;
+            if (a >= 0) {
+                pile[haut++] = a;
+                x = destinations[a];
+            } else {
+                // Impasse : on retire x du graphe de niveaux et on recule d'un arc
+                niveaux[x] = -2;
+                if (haut == 0)
+                    return 0;
+                a = pile[--haut];
+                x = destinations[a ^ 1];
+                courants[x] = suivants[courants[x]];
+            }
+        }
+    }
+}
@@ -12,9 +12,65 @@ import java.util.*;
 
 public class Graphe {
     private final Set<Sommet> sommets;
+    /**
+     * Index des sommets par numéro, tenu à jour par {@code ajouterSommet} et {@code supprimerSommet}.
+     */
+    private final IndexSommets index;
+    /**
+     * Nombre de modifications du graphe, faites par ses méthodes ou directement sur ses sommets
+     * (voir {@link CompteurModifications}).
+     */
+    private final CompteurModifications modifications = new CompteurModifications();
+    /**
+     * Dernière représentation compacte calculée, ainsi que le nombre de modifications au moment du calcul.
+     */
+    private GrapheCompact compact;
+    private int nbModificationsCompact;
+    /**
+     * Classes de connexité de la dernière représentation compacte (null si pas encore calculées).
+     */
+    private ClassesConnexite classesConnexite;
+    /**
+     * Ordre de dégénérescence de la dernière représentation compacte et tableaux de travail
+     * de la recherche de cliques (null si pas encore calculés).
+     */
+    private Cliques cliques;
+    /**
+     * Index de la dernière représentation compacte pour la recherche de sous-graphes isomorphes.
+     */
+    private HoteIndexe hoteIndexe;
+    /**
+     * Réseau de flot de la dernière représentation compacte, pour les coupes entre deux sommets.
+     */
+    private CoupesSommets coupesSommets;
+    /**
+     * Arbre de coupes du graphe, supprimé dès que le graphe est modifié par ses méthodes.
+     */
+    private ArbreDeCoupes arbreDeCoupes;
+    /**
+     * Cache des distances entre toutes les paires de sommets (null tant qu'il n'est pas activé),
+     * reconstruit quand la structure du graphe change et mis à jour par {@code modifierSurcout}.
+     */
+    private CacheDistances cacheDistances;
+    private boolean cacheDistancesActif;
+    /**
+     * Coordonnées sur le plateau et tableaux de travail de la recherche A* (null si pas encore utilisée).
+     */
+    private RechercheAEtoile rechercheAEtoile;
+    /**
+     * Connexité dynamique tenue à jour par les méthodes de modification du graphe (null si pas activée),
+     * avec le numéro de chaque sommet (par indice) dans cette structure.
+     */
+    private ConnexiteDynamique connexiteDynamique;
+    private Map<Integer, Integer> idsDynamiques;
 
     public Graphe(Set<Sommet> sommets) {
-        this.sommets = sommets;
+        this.sommets = new HashSet<>(sommets);
+        this.index = new IndexSommets();
+        for (Sommet s : this.sommets) {
+            index.put(s);
+            s.ajouterCompteur(modifications);
+        }
     }
 
     /**
@@ -32,6 +88,7 @@ public class Graphe {
      */
     public Graphe() {
         sommets = new HashSet<>();
+        index = new IndexSommets();
     }
 
     /**
@@ -55,6 +112,15 @@ public class Graphe {
         }
     }
 
+    /**
+     * @param X les sommets à considérer (ceux qui ne sont pas dans this sont ignorés)
+     * @return le sous-graphe induit par {@code X}, sous forme d'une vue non modifiable qui ne copie
+     * ni les sommets ni les arêtes (voir {@link SousGrapheInduit})
+     */
+    public Graphe getSousGrapheInduit(Set<Sommet> X) {
+        return new SousGrapheInduit(this, X);
+    }
+
     /**
      * @return true si et seulement si la séquence d'entiers passée en paramètre
      * correspond à un graphe simple valide dont les degrés correspondent aux éléments de la liste.
@@ -100,35 +166,81 @@ public class Graphe {
      * L'ensemble de joueurs du nouveau sommet sera l'union des ensembles de joueurs des sommets fusionnés.
      */
     public static Graphe fusionnerEnsembleSommets(Graphe g, Set<Sommet> ensemble) {
-        Set<Integer> indices = new HashSet<>();
-        int surcout = 0;
-        int nbPointVictoire = 0;
-        Set<Integer> joueurs = new HashSet<>();
-        Graphe newGraphe = new Graphe(new HashSet<>(g.getSommets()));
-
-        Set<Sommet> voisins = new HashSet<>();
-        for (Sommet s : ensemble){
-            indices.add(s.getIndice());
-            surcout += s.getSurcout();
-            nbPointVictoire += s.getNbPointsVictoire();
-            joueurs.addAll(s.getJoueurs());
-            voisins.addAll(s.getVoisins());
-            newGraphe.supprimerSommet(s);
+        Graphe source = g;
+        if (!g.getSommets().containsAll(ensemble)) {
+            // Les sommets de l'ensemble qui ne sont pas dans g sont fusionnés avec les autres
+            Set<Sommet> sommets = new HashSet<>(g.getSommets());
+            sommets.addAll(ensemble);
+            source = new Graphe(sommets);
+        }
+        return fusionnerPartition(source, List.of(ensemble));
+    }
+
+    /**
+     * @param g         le graphe source, qui n'est pas modifié
+     * @param partition des ensembles de sommets de {@code g} deux à deux disjoints (par exemple les réseaux des
+     *                  joueurs) ; les sommets qui ne sont dans aucun ensemble restent seuls, les sommets qui ne sont
+     *                  pas dans {@code g} sont ignorés et deux ensembles qui se chevauchent sont fusionnés ensemble
+     * @return le graphe quotient, dans lequel chaque ensemble est remplacé par un seul sommet construit comme dans
+     * {@link #fusionnerEnsembleSommets} (plus petit indice, sommes des surcouts et des points de victoire, union
+     * des joueurs), deux sommets du quotient étant voisins si l'un des sommets fusionnés dans le premier est voisin
+     * de l'un des sommets fusionnés dans le second. Tous les sommets du quotient sont nouveaux : ceux de {@code g}
+     * ne sont ni partagés ni modifiés. Le quotient est calculé en un seul passage en O(n + m) sur la représentation
+     * compacte de {@code g}, les classes étant numérotées par un union-find.
+     */
+    public static Graphe fusionnerPartition(Graphe g, Collection<? extends Set<Sommet>> partition) {
+        GrapheCompact c = g.getGrapheCompact();
+        int n = c.getNbSommets();
+        UnionFind classes = new UnionFind(n);
+        for (Set<Sommet> ensemble : partition) {
+            int premier = -1;
+            for (Sommet s : ensemble) {
+                int u = c.getId(s);
+                if (u >= 0 && premier < 0)
+                    premier = u;
+                else if (u >= 0)
+                    classes.unir(premier, u);
+            }
+        }
+        // Numéro de chaque classe dans le quotient ; les identifiants étant rangés par indice croissant,
+        // le premier identifiant rencontré dans une classe est celui de plus petit indice
+        int[] numeros = new int[n];
+        Arrays.fill(numeros, -1);
+        int[] etiquettes = new int[n];
+        int nbClasses = 0;
+        for (int u = 0; u < n; u++) {
+            int r = classes.trouver(u);
+            if (numeros[r] < 0)
+                numeros[r] = nbClasses++;
+            etiquettes[u] = numeros[r];
+        }
+        Sommet[] quotient = new Sommet[nbClasses];
+        int[] surcouts = new int[nbClasses];
+        int[] nbPointsVictoire = new int[nbClasses];
+        List<Set<Integer>> joueurs = new ArrayList<>(nbClasses);
+        for (int k = 0; k < nbClasses; k++)
+            joueurs.add(new HashSet<>());
+        for (int u = 0; u < n; u++) {
+            surcouts[etiquettes[u]] += c.getSurcout(u);
+            nbPointsVictoire[etiquettes[u]] += c.getNbPointsVictoire(u);
+            joueurs.get(etiquettes[u]).addAll(c.getSommet(u).getJoueurs());
         }
-        voisins.removeAll(ensemble);
-        Sommet.SommetBuilder sommetBuilder = new Sommet.SommetBuilder();
-        int indice = indices.stream().min(Integer::compareTo).orElse(0);
-        sommetBuilder.setIndice(indice);
-        sommetBuilder.setJoueurs(joueurs);
-        sommetBuilder.setSurcout(surcout);
-        sommetBuilder.setNbPointsVictoire(nbPointVictoire);
-        newGraphe.ajouterSommet(sommetBuilder.createSommet());
-        Sommet newSommet = newGraphe.getSommet(indice);
-        voisins.forEach(v -> {
-            v.ajouterVoisin(newSommet);
-            newSommet.ajouterVoisin(v);
-        });
-        return newGraphe;
+        for (int u = 0; u < n; u++) {
+            int k = etiquettes[u];
+            if (quotient[k] == null)
+                quotient[k] = new Sommet.SommetBuilder().setIndice(c.getIndice(u)).setSurcout(surcouts[k])
+                        .setNbPointsVictoire(nbPointsVictoire[k]).setJoueurs(joueurs.get(k)).createSommet();
+        }
+        for (int u = 0; u < n; u++) {
+            for (int k = c.debutVoisins(u); k < c.finVoisins(u); k++) {
+                int v = c.getVoisin(k);
+                if (v > u && etiquettes[u] != etiquettes[v]) {
+                    quotient[etiquettes[u]].ajouterVoisin(quotient[etiquettes[v]]);
+                    quotient[etiquettes[v]].ajouterVoisin(quotient[etiquettes[u]]);
+                }
+            }
+        }
+        return new Graphe(new HashSet<>(Arrays.asList(quotient)));
     }
 
     /**
@@ -136,19 +248,112 @@ public class Graphe {
      * @return le sommet d'indice {@code i} dans le graphe ou null si le sommet d'indice {@code i} n'existe pas dans this
      */
     public Sommet getSommet(int i) {
-        for (Sommet s : sommets) {
-            if (s.getIndice() == i) {
-                return s;
-            }
-        }
-        return null;
+        return index.get(i);
     }
 
     /**
-     * @return l'ensemble des sommets du graphe
+     * @return l'ensemble des sommets du graphe (non modifiable, il faut passer par
+     * {@code ajouterSommet} et {@code supprimerSommet})
      */
     public Set<Sommet> getSommets() {
-        return sommets;
+        return Collections.unmodifiableSet(sommets);
+    }
+
+    /**
+     * Note que le graphe a été modifié et libère les résultats calculés sur l'ancienne version.
+     */
+    private void invaliderAnalyses() {
+        modifications.incrementer();
+        compact = null;
+        classesConnexite = null;
+        cliques = null;
+        hoteIndexe = null;
+        coupesSommets = null;
+        arbreDeCoupes = null;
+        cacheDistances = null;
+        rechercheAEtoile = null;
+    }
+
+    /**
+     * Modifie le surcout d'un sommet du graphe (par exemple quand un rail ou une gare est posé sur la tuile).
+     * Les analyses qui ne dépendent pas des surcouts sont conservées, et le cache des distances
+     * n'est mis à jour que pour les distances concernées. Les autres graphes qui contiennent le même sommet
+     * sont prévenus par le sommet et recalculent leurs analyses à la requête suivante.
+     *
+     * @param s un sommet du graphe (rien n'est fait si aucun sommet de ce numéro n'est dans le graphe)
+     */
+    public void modifierSurcout(Sommet s, int surcout) {
+        Sommet sommet = index.get(s.getIndice());
+        if (sommet == null || sommet.getSurcout() == surcout)
+            return;
+        int ancien = sommet.getSurcout();
+        boolean aJour = compact != null && nbModificationsCompact == modifications.getValeur();
+        sommet.setSurcout(surcout);
+        if (!aJour)
+            return;
+        // Le sommet a incrémenté le compteur : la représentation compacte reste valable une fois mise à jour
+        nbModificationsCompact = modifications.getValeur();
+        int u = compact.getId(sommet);
+        if (u >= 0) {
+            compact.setSurcout(u, surcout);
+            if (cacheDistances != null && cacheDistances.getGraphe() == compact)
+                cacheDistances.surcoutModifie(u, ancien);
+            if (rechercheAEtoile != null && rechercheAEtoile.getGraphe() == compact)
+                rechercheAEtoile.surcoutModifie(u);
+        }
+    }
+
+    /**
+     * Active le cache des distances : les appels suivants à {@code getDistance} réutilisent les distances
+     * déjà calculées depuis le même sommet de départ.
+     */
+    public void activerCacheDistances() {
+        cacheDistancesActif = true;
+    }
+
+    public void desactiverCacheDistances() {
+        cacheDistancesActif = false;
+        cacheDistances = null;
+    }
+
+    /**
+     * @return le cache des distances de la version actuelle du graphe (créé vide si besoin),
+     * ou null si le cache n'est pas activé
+     */
+    public CacheDistances getCacheDistances() {
+        if (!cacheDistancesActif)
+            return null;
+        GrapheCompact c = getGrapheCompact();
+        if (cacheDistances == null || cacheDistances.getGraphe() != c)
+            cacheDistances = new CacheDistances(c);
+        return cacheDistances;
+    }
+
+    /**
+     * @return la représentation compacte du graphe, recalculée seulement si le graphe
+     * (ou l'un de ses sommets) a été modifié depuis le dernier appel ; la vérification est en O(1)
+     */
+    public GrapheCompact getGrapheCompact() {
+        if (compact == null || nbModificationsCompact != modifications.getValeur()) {
+            compact = new GrapheCompact(this);
+            nbModificationsCompact = modifications.getValeur();
+        }
+        return compact;
+    }
+
+    /**
+     * @return le nombre de modifications du graphe et de ses sommets depuis sa création, qui change
+     * à chaque modification de sa structure ou des surcouts de ses sommets
+     */
+    int getNbModifications() {
+        return modifications.getValeur();
+    }
+
+    /**
+     * @return le nombre d'ajouts de joueurs sur les sommets du graphe, compté à part de {@link #getNbModifications}
+     */
+    int getNbModificationsJoueurs() {
+        return modifications.getValeurJoueurs();
     }
 
     /**
@@ -162,10 +367,12 @@ public class Graphe {
      * @return l'ensemble d'arêtes du graphe sous forme d'ensemble de paires de sommets
      */
     public Set<Set<Sommet>> getAretes() {
+        GrapheCompact c = getGrapheCompact();
         Set<Set<Sommet>> aretes = new HashSet<>();
-        for(Sommet sommet : sommets)
-            for(Sommet voisin : sommet.getVoisins())
-                aretes.add(Set.of(sommet, voisin));
+        for (int u = 0; u < c.getNbSommets(); u++)
+            for (int k = c.debutVoisins(u); k < c.finVoisins(u); k++)
+                if (c.getVoisin(k) > u)
+                    aretes.add(Set.of(c.getSommet(u), c.getSommet(c.getVoisin(k))));
         return aretes;
     }
 
@@ -173,7 +380,7 @@ public class Graphe {
      * @return le nombre d'arêtes du graphe
      */
     public int getNbAretes() {
-        return getAretes().size();
+        return getGrapheCompact().getNbAretes();
     }
 
     /**
@@ -183,7 +390,7 @@ public class Graphe {
      * @return un booléen retournant {@code true} si le sommet a été ajouté, {@code false} sinon
      */
     public boolean ajouterSommet(int i) {
-        return sommets.add(new Sommet.SommetBuilder().setIndice(i).createSommet());
+        return ajouterSommet(new Sommet.SommetBuilder().setIndice(i).createSommet());
     }
 
     /**
@@ -193,7 +400,14 @@ public class Graphe {
      * @return true si le sommet a été ajouté, false sinon
      */
     public boolean ajouterSommet(Sommet s) {
-        return sommets.add(s);
+        if (!sommets.add(s))
+            return false;
+        index.put(s);
+        s.ajouterCompteur(modifications);
+        if (connexiteDynamique != null)
+            idsDynamiques.put(s.getIndice(), connexiteDynamique.ajouterSommet());
+        invaliderAnalyses();
+        return true;
     }
 
     /**
@@ -205,7 +419,22 @@ public class Graphe {
      */
     public boolean supprimerSommet(Sommet s) {
         s.getVoisins().forEach(v -> v.supprimerVoisin(s));
-        return sommets.remove(s);
+        if (connexiteDynamique != null && sommets.contains(s)) {
+            int u = idsDynamiques.remove(s.getIndice());
+            for (Sommet v : s.getVoisins()) {
+                Integer w = idsDynamiques.get(v.getIndice());
+                if (w != null)
+                    connexiteDynamique.supprimerArete(u, w);
+            }
+            connexiteDynamique.supprimerSommet(u);
+        }
+        Sommet present = index.get(s.getIndice());
+        if (!sommets.remove(s))
+            return false;
+        index.remove(s.getIndice());
+        present.retirerCompteur(modifications);
+        invaliderAnalyses();
+        return true;
     }
 
     /**
@@ -221,10 +450,14 @@ public class Graphe {
      * Récupérer la séquence de degré du graphe
      */
     public List<Integer> getSequenceDegres() {
-        List<Integer> sequences = new ArrayList<>();
-        for(Sommet s : sommets)
-            sequences.add(degre(s));
-        sequences.sort(Integer::compareTo);
+        GrapheCompact c = getGrapheCompact();
+        int[] degres = new int[c.getNbSommets()];
+        for (int u = 0; u < degres.length; u++)
+            degres[u] = c.degre(u);
+        Arrays.sort(degres);
+        List<Integer> sequences = new ArrayList<>(degres.length);
+        for (int d : degres)
+            sequences.add(d);
         return sequences;
     }
 
@@ -232,38 +465,37 @@ public class Graphe {
      * @return true si et seulement si this est complet.
      */
     public boolean estComplet() {
-        return getNbAretes() == (sommets.size()*(sommets.size()-1)) / 2;
+        GrapheCompact c = getGrapheCompact();
+        long n = c.getNbSommets();
+        return c.getNbAretes() == n * (n - 1) / 2;
     }
 
     /**
      * @return true si et seulement si this est une chaîne. On considère que le graphe vide est une chaîne.
      */
     public boolean estChaine() {
-        if (getNbAretes() == getNbSommets()-1 || getNbSommets() == 0){
-            int nbBout = 0;
-            for (Sommet s : sommets){
-                if (s.getVoisins().size() == 1)
-                    nbBout++;
-
-                if (nbBout > 2 || s.getVoisins().isEmpty() || s.getVoisins().size() > 2)
-                    return false;
-            }
+        GrapheCompact c = getGrapheCompact();
+        if (c.getNbSommets() == 0)
             return true;
-        }
-        return false;
+        if (c.getNbAretes() != c.getNbSommets() - 1)
+            return false;
+        for (int u = 0; u < c.getNbSommets(); u++)
+            if (c.degre(u) > 2)
+                return false;
+        return getClassesConnexite().estConnexe();
     }
 
     /**
      * @return true si et seulement si this est un cycle. On considère que le graphe vide n'est pas un cycle.
      */
     public boolean estCycle() {
-        if(getNbSommets() >= 3 && getNbAretes() > getNbSommets()-1 && estConnexe()) {
-            for(Sommet sommet : sommets)
-                if(degre(sommet) != 2)
-                    return false;
-            return true;
-        }
-        return false;
+        GrapheCompact c = getGrapheCompact();
+        if (c.getNbSommets() < 3)
+            return false;
+        for (int u = 0; u < c.getNbSommets(); u++)
+            if (c.degre(u) != 2)
+                return false;
+        return getClassesConnexite().estConnexe();
     }
 
     /**
@@ -271,7 +503,8 @@ public class Graphe {
      * On considère qu'un graphe vide est un arbre.
      */
     public boolean estArbre() {
-        return sommets.isEmpty() || estConnexe() && !possedeUnCycle();
+        GrapheCompact c = getGrapheCompact();
+        return c.getNbSommets() == 0 || c.getNbAretes() == c.getNbSommets() - 1 && getClassesConnexite().estConnexe();
     }
 
     /**
@@ -279,70 +512,54 @@ public class Graphe {
      * et que le graphe vide est un arbre.
      */
     public boolean estForet() {
-        Set<Set<Sommet>> ensembleClasses = getEnsembleClassesConnexite();
-        Graphe g;
-        for(Set<Sommet> classe : ensembleClasses) {
-            g = new Graphe(this, classe);
-            if(!g.estArbre())
-                return false;
-        }
-        return true;
+        return !possedeUnCycle();
     }
 
     /**
      * @return true si et seulement si this a au moins un cycle. On considère que le graphe vide n'est pas un cycle.
+     * Une forêt à n sommets et c classes de connexité a exactement n - c arêtes : toute arête supplémentaire ferme un cycle.
      */
     public boolean possedeUnCycle() {
-        if(getNbSommets() >= 3) {
-            Set<Sommet> dejaVus = new HashSet<>();
-            for (Set<Sommet> ensembleClasse : getEnsembleClassesConnexite()) {
-                dejaVus.clear();
-                if(voisinPossedeUnCycle(dejaVus, sommets.iterator().next(), null))
-                    return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean voisinPossedeUnCycle(Set<Sommet> dejaVus, Sommet sommetActuel, Sommet dernierSommet) {
-        for (Sommet voisin : sommetActuel.getVoisins()) {
-            if (voisin != dernierSommet) {
-                if (dejaVus.contains(voisin))
-                    return true;
-                dejaVus.add(voisin);
-                if(voisinPossedeUnCycle(dejaVus, voisin, sommetActuel))
-                    return true;
-            }
-        }
-        return false;
+        GrapheCompact c = getGrapheCompact();
+        return c.getNbAretes() > c.getNbSommets() - getClassesConnexite().getNbClasses();
     }
 
     /**
      * @return true si et seulement si this a un isthme
      */
     public boolean possedeUnIsthme() {
-        if(degreMin() > 1) {
-            Graphe graphe = new Graphe(this, sommets);
-            Set<Set<Sommet>> aretes = new HashSet<>(graphe.getAretes());
-            Set<Set<Sommet>> ensembleClasses;
-            Iterator<Set<Sommet>> it = aretes.iterator();
-            List<Sommet> arete;
-            while (it.hasNext()) {
-                ensembleClasses = getEnsembleClassesConnexite();
-                arete = it.next().stream().toList();
-                graphe.supprimerArete(arete.get(0), arete.get(1));
-                if(!getEnsembleClassesConnexite().equals(ensembleClasses))
-                    return true;
-                graphe.ajouterArete(arete.get(0), arete.get(1));
-            }
-        } else return true;
-        return false;
+        return getIsthmes().getNbIsthmes() > 0;
+    }
+
+    /**
+     * @return les isthmes et les composantes 2-arête-connexes du graphe, calculés en O(n + m)
+     */
+    public Isthmes getIsthmes() {
+        return new Isthmes(getGrapheCompact());
+    }
+
+    /**
+     * @return les points d'articulation, les blocs et l'arbre des blocs du graphe, calculés en O(n + m)
+     */
+    public Biconnexite getBiconnexite() {
+        return new Biconnexite(getGrapheCompact());
+    }
+
+    /**
+     * @return l'ensemble des sommets dont la suppression augmente le nombre de classes de connexité
+     */
+    public Set<Sommet> getPointsDArticulation() {
+        return getBiconnexite().getPointsDArticulation();
     }
 
     public void ajouterArete(Sommet s, Sommet t) {
-        if (!s.estVoisin(t)){
+        if (!s.estVoisin(t) || !t.estVoisin(s)){
             s.ajouterVoisin(t);
             t.ajouterVoisin(s);
+            if (connexiteDynamique != null && idsDynamiques.containsKey(s.getIndice())
+                    && idsDynamiques.containsKey(t.getIndice()))
+                connexiteDynamique.ajouterArete(idsDynamiques.get(s.getIndice()), idsDynamiques.get(t.getIndice()));
+            invaliderAnalyses();
         }
     }
 
@@ -350,6 +567,10 @@ public class Graphe {
         if (s.estVoisin(t)){
             s.supprimerVoisin(t);
             t.supprimerVoisin(s);
+            if (connexiteDynamique != null && idsDynamiques.containsKey(s.getIndice())
+                    && idsDynamiques.containsKey(t.getIndice()))
+                connexiteDynamique.supprimerArete(idsDynamiques.get(s.getIndice()), idsDynamiques.get(t.getIndice()));
+            invaliderAnalyses();
         }
     }
 
@@ -359,29 +580,17 @@ public class Graphe {
      * (si deux sommets ont le même degré, alors on les ordonne par indice croissant).
      */
     public Map<Integer, Set<Sommet>> getColorationGloutonne() {
-        Map<Integer, Set<Sommet>> colorations = new HashMap<>();
-        if(getNbSommets() > 0) {
-            int nbCouleurs = degreMax() + 1;
-            // Ajouter toutes les couleurs possibles
-            for (int i = 1; i <= nbCouleurs; i++)
-                colorations.put(i, new HashSet<>());
-            PriorityQueue<Sommet> queue = new PriorityQueue<>((a, b) -> degre(a) == degre(b) ? a.getIndice() - b.getIndice() : degre(b) - degre(a));
-            queue.addAll(sommets);
-
-            Sommet sommet;
-            while (!queue.isEmpty()) {
-                sommet = queue.poll();
-                int i = 1;
-                Set<Sommet> voisins = sommet.getVoisins();
-                do {
-                    if (colorations.get(i).stream().noneMatch(voisins::contains))
-                        colorations.get(i).add(sommet);
-                } while (!colorations.get(i++).contains(sommet));
-            }
-            // Supprimer toutes les couleurs inutilisées
-            colorations.entrySet().removeIf(e -> e.getValue().isEmpty());
-        }
-        return colorations;
+        return Coloration.gloutonne(getGrapheCompact()).getClasses();
+    }
+
+    /**
+     * @param graine       la graine des priorités des sommets (le résultat ne dépend que d'elle)
+     * @param parallelisme le nombre de fils d'exécution
+     * @return une coloration propre calculée en parallèle par l'algorithme de Jones–Plassmann
+     * (voir {@link ColorationParallele}), sous la même forme que {@link #getColorationGloutonne}
+     */
+    public Map<Integer, Set<Sommet>> getColorationParallele(long graine, int parallelisme) {
+        return ColorationParallele.calculer(getGrapheCompact(), graine, parallelisme).getClasses();
     }
 
     /**
@@ -391,56 +600,131 @@ public class Graphe {
      * pré-requis : l'ensemble de départ et le sommet d'arrivée sont inclus dans l'ensemble des sommets de this
      */
     public int getDistance(Set<Sommet> depart, Sommet arrivee) {
-        int plusPetit = Integer.MAX_VALUE;
-        for(Sommet s : depart)
-            plusPetit = Math.min(plusPetit, getDistance(s, arrivee));
-        return plusPetit;
+        GrapheCompact c = getGrapheCompact();
+        int cible = c.getId(arrivee);
+        int[] sources = new int[depart.size()];
+        int nbSources = 0;
+        for (Sommet s : depart) {
+            int u = c.getId(s);
+            if (u >= 0)
+                sources[nbSources++] = u;
+        }
+        if (cible < 0 || nbSources == 0)
+            return Dijkstra.INFINI;
+        CacheDistances cache = getCacheDistances();
+        if (cache != null) {
+            // Un chemin coûte la somme des surcouts de ses sommets sauf le premier : la distance de s à t
+            // vaut donc celle de t à s plus le surcout de t moins celui de s, et une seule ligne suffit
+            int distance = Dijkstra.INFINI;
+            for (int k = 0; k < nbSources; k++) {
+                int retour = cache.getDistance(cible, sources[k]);
+                if (retour != Dijkstra.INFINI)
+                    distance = Math.min(distance, retour + c.getSurcout(cible) - c.getSurcout(sources[k]));
+            }
+            return distance;
+        }
+        return new Dijkstra(c).calculer(sources, nbSources, cible);
     }
 
     /**
      * @return le surcout total minimal du parcours entre le sommet de depart et le sommet d'arrivée
+     * (Integer.MAX_VALUE si l'arrivée n'est pas accessible)
      */
     public int getDistance(Sommet depart, Sommet arrivee) {
-        Map<Sommet, Integer> distances = new HashMap<>();
-        for(Sommet sommet : sommets)
-            distances.put(sommet, Integer.MAX_VALUE);
-        distances.replace(depart, 0);
-        PriorityQueue<Sommet> queue = new PriorityQueue<>((a, b) -> distances.get(a).equals(distances.get(b))
-                ? a.getIndice() - b.getIndice() : distances.get(a) - distances.get(b));
-        queue.add(depart);
-        while (!queue.isEmpty()) {
-            Sommet sommet = queue.poll();
-            int distance = distances.remove(sommet);
-            if(sommet == arrivee)
-                return distance;
-            for(Sommet voisin : sommet.getVoisins()) {
-                if(distances.containsKey(voisin)) {
-                    if(!queue.contains(voisin))
-                        queue.add(voisin);
-                    int nvDistance = distance + voisin.getSurcout();
-                    if(nvDistance < distances.get(voisin))
-                        distances.replace(voisin, nvDistance);
-                }
-            }
-        }
-        return Integer.MAX_VALUE;
+        GrapheCompact c = getGrapheCompact();
+        int source = c.getId(depart), cible = c.getId(arrivee);
+        if (source < 0 || cible < 0)
+            return Dijkstra.INFINI;
+        CacheDistances cache = getCacheDistances();
+        if (cache != null)
+            return cache.getDistance(source, cible);
+        return new Dijkstra(c).calculer(new int[]{source}, 1, cible);
+    }
+
+    /**
+     * Calcule la même distance que {@link #getDistance(Sommet, Sommet)} par une recherche A* guidée par
+     * la position des tuiles sur le plateau, qui n'explore que les sommets proches du plus court chemin.
+     *
+     * @return le surcout total minimal du parcours entre le sommet de depart et le sommet d'arrivée
+     * (Integer.MAX_VALUE si l'arrivée n'est pas accessible)
+     */
+    public int getDistanceAEtoile(Sommet depart, Sommet arrivee) {
+        GrapheCompact c = getGrapheCompact();
+        int source = c.getId(depart), cible = c.getId(arrivee);
+        if (source < 0 || cible < 0)
+            return Dijkstra.INFINI;
+        return getRechercheAEtoile().calculer(source, cible);
+    }
+
+    /**
+     * @return la recherche A* de la version actuelle du graphe, avec les coordonnées des tuiles du plateau
+     */
+    public RechercheAEtoile getRechercheAEtoile() {
+        GrapheCompact c = getGrapheCompact();
+        if (rechercheAEtoile == null || rechercheAEtoile.getGraphe() != c)
+            rechercheAEtoile = RechercheAEtoile.depuisPlateau(c);
+        return rechercheAEtoile;
+    }
+
+    /**
+     * @return l'arbre des plus courts chemins depuis {@code depart}, qui donne la distance et un chemin
+     * de coût minimal vers chaque sommet du graphe
+     */
+    public ArbrePlusCourtsChemins getArbrePlusCourtsChemins(Sommet depart) {
+        return getArbrePlusCourtsChemins(Set.of(depart));
+    }
+
+    /**
+     * @return l'arbre des plus courts chemins depuis l'ensemble {@code depart} (chaque chemin part
+     * du sommet de départ le plus proche)
+     */
+    public ArbrePlusCourtsChemins getArbrePlusCourtsChemins(Set<Sommet> depart) {
+        GrapheCompact c = getGrapheCompact();
+        return new ArbrePlusCourtsChemins(c, depart.stream().mapToInt(c::getId).filter(u -> u >= 0).toArray());
+    }
+
+    /**
+     * @param joueur l'indice d'un joueur dans le jeu
+     * @return l'arbre des chemins les moins chers pour étendre le réseau du joueur : les sommets où il a déjà
+     * un rail ne coûtent rien, les autres coûtent leur surcout (toutes les distances sont infinies
+     * si le joueur n'a aucun rail)
+     */
+    public ArbrePlusCourtsChemins getArbreExpansion(int joueur) {
+        GrapheCompact c = getGrapheCompact();
+        boolean[] possedes = new boolean[c.getNbSommets()];
+        for (int u = 0; u < possedes.length; u++)
+            possedes[u] = c.getSommet(u).getJoueurs().contains(joueur);
+        return ArbrePlusCourtsChemins.depuisReseau(c, possedes);
+    }
+
+    /**
+     * @param depart    le réseau déjà construit (éventuellement vide), dont le coût n'est pas compté
+     * @param terminaux les sommets à relier au réseau
+     * @return une approximation de l'ensemble de sommets le moins cher qui relie le réseau de départ
+     * à tous les terminaux accessibles, avec son coût
+     */
+    public ArbreDeSteiner getArbreDeSteiner(Set<Sommet> depart, Set<Sommet> terminaux) {
+        GrapheCompact c = getGrapheCompact();
+        return new ArbreDeSteiner(c, depart.stream().mapToInt(c::getId).filter(u -> u >= 0).toArray(),
+                terminaux.stream().mapToInt(c::getId).filter(u -> u >= 0).toArray());
+    }
+
+    /**
+     * @return les classes de connexité du graphe, sans construire d'ensembles de sommets
+     * (recalculées seulement si le graphe a été modifié)
+     */
+    public ClassesConnexite getClassesConnexite() {
+        GrapheCompact c = getGrapheCompact();
+        if (classesConnexite == null || classesConnexite.getGraphe() != c)
+            classesConnexite = new ClassesConnexite(c);
+        return classesConnexite;
     }
 
     /**
      * @return l'ensemble des classes de connexité du graphe sous forme d'un ensemble d'ensembles de sommets.
      */
     public Set<Set<Sommet>> getEnsembleClassesConnexite() {
-        Set<Set<Sommet>> ensembleClassesConnexite = new HashSet<>();
-        if (sommets.isEmpty())
-            return ensembleClassesConnexite;
-        Set<Sommet> sommets = new HashSet<>(this.sommets);
-        while (!sommets.isEmpty()) {
-            Sommet v = sommets.iterator().next();
-            Set<Sommet> classe = getClasseConnexite(v);
-            sommets.removeAll(classe);
-            ensembleClassesConnexite.add(classe);
-        }
-        return ensembleClassesConnexite;
+        return getClassesConnexite().getEnsembles();
     }
 
     /**
@@ -448,55 +732,75 @@ public class Graphe {
      * @return la classe de connexité du sommet {@code v} sous forme d'un ensemble de sommets.
      */
     public Set<Sommet> getClasseConnexite(Sommet v) {
-        if (!sommets.contains(v))
+        ClassesConnexite classes = getClassesConnexite();
+        int u = classes.getGraphe().getId(v);
+        if (u < 0)
             return new HashSet<>();
-        Set<Sommet> classe = new HashSet<>();
-        calculerClasseConnexite(v, classe);
-        return classe;
+        return classes.getEnsemble(classes.getClasse(u));
     }
 
-    private void calculerClasseConnexite(Sommet v, Set<Sommet> dejaVus) {
-        dejaVus.add(v);
-        Set<Sommet> voisins = v.getVoisins();
+    /**
+     * @return true si et seulement si this est connexe.
+     */
+    public boolean estConnexe() {
+        if (connexiteDynamique != null)
+            return connexiteDynamique.estConnexe();
+        return getClassesConnexite().estConnexe();
+    }
 
-        for (Sommet voisin : voisins) {
-            if (dejaVus.add(voisin))
-                calculerClasseConnexite(voisin, dejaVus);
+    /**
+     * @return true si un chemin relie {@code s} et {@code t} dans le graphe
+     */
+    public boolean sontConnectes(Sommet s, Sommet t) {
+        if (connexiteDynamique != null) {
+            Integer u = idsDynamiques.get(s.getIndice()), v = idsDynamiques.get(t.getIndice());
+            return u != null && v != null && connexiteDynamique.sontConnectes(u, v);
         }
+        ClassesConnexite classes = getClassesConnexite();
+        int u = classes.getGraphe().getId(s), v = classes.getGraphe().getId(t);
+        return u >= 0 && v >= 0 && classes.memeClasse(u, v);
     }
 
     /**
-     * @return true si et seulement si this est connexe.
+     * Active la connexité dynamique : les ajouts et suppressions de sommets et d'arêtes faits à travers
+     * les méthodes du graphe la tiennent à jour en O(log² n) amorti, et {@code estConnexe} et {@code sontConnectes}
+     * répondent sans recalculer les classes de connexité. Les modifications faites directement sur les sommets
+     * ne sont pas suivies.
      */
-    public boolean estConnexe() {
-        if(getNbSommets() > 1) {
-            List<Sommet> dejaVus = new ArrayList<>();
-            Sommet s = getSommets().iterator().next();
-            dejaVus.add(s);
-            Set<Sommet> voisins;
-            int indice = 0;
-            while (dejaVus.size() != sommets.size()) {
-                for (Sommet voisin : s.getVoisins())
-                    if (!dejaVus.contains(voisin))
-                        dejaVus.add(voisin);
-
-                indice++;
-                if (indice < dejaVus.size())
-                    s = dejaVus.get(indice);
-                else return false;
-            }
-        }
-        return true;
+    public void activerConnexiteDynamique() {
+        if (connexiteDynamique != null)
+            return;
+        GrapheCompact c = getGrapheCompact();
+        connexiteDynamique = new ConnexiteDynamique();
+        idsDynamiques = new HashMap<>();
+        for (int u = 0; u < c.getNbSommets(); u++)
+            idsDynamiques.put(c.getIndice(u), connexiteDynamique.ajouterSommet());
+        for (int u = 0; u < c.getNbSommets(); u++)
+            for (int k = c.debutVoisins(u); k < c.finVoisins(u); k++)
+                if (c.getVoisin(k) > u)
+                    connexiteDynamique.ajouterArete(u, c.getVoisin(k));
+    }
+
+    public void desactiverConnexiteDynamique() {
+        connexiteDynamique = null;
+        idsDynamiques = null;
+    }
+
+    /**
+     * @return la connexité dynamique du graphe, ou null si elle n'est pas activée
+     */
+    public ConnexiteDynamique getConnexiteDynamique() {
+        return connexiteDynamique;
     }
 
     /**
      * @return le degré maximum des sommets du graphe
      */
     public int degreMax() {
+        GrapheCompact c = getGrapheCompact();
         int nbDegreMax = 0;
-        for (Sommet s : sommets)
-            if (degre(s)>nbDegreMax)
-                nbDegreMax = degre(s);
+        for (int u = 0; u < c.getNbSommets(); u++)
+            nbDegreMax = Math.max(nbDegreMax, c.degre(u));
         return nbDegreMax;
     }
 
@@ -504,10 +808,10 @@ public class Graphe {
      * @return le degré minimum des sommets du graphe
      */
     public int degreMin() {
+        GrapheCompact c = getGrapheCompact();
         int nbDegreMin = Integer.MAX_VALUE;
-        for (Sommet s : sommets)
-            if (degre(s)<nbDegreMin)
-                nbDegreMin = degre(s);
+        for (int u = 0; u < c.getNbSommets(); u++)
+            nbDegreMin = Math.min(nbDegreMin, c.degre(u));
         return nbDegreMin;
     }
 
@@ -517,14 +821,25 @@ public class Graphe {
      * Pré-requis : le graphe est issu du plateau du jeu Train (entre autres, il est planaire).
      */
     public Map<Integer, Set<Sommet>> getColorationPropreOptimale() {
-        throw new RuntimeException("Méthode à implémenter");
+        return new ColorationOptimale(getGrapheCompact(), getCliques()).getColoration().getClasses();
     }
 
     /**
      * @return true si et seulement si this possède un sous-graphe complet d'ordre {@code k}
      */
     public boolean possedeSousGrapheComplet(int k) {
-        throw new RuntimeException("Méthode à implémenter");
+        return getCliques().possedeClique(k);
+    }
+
+    /**
+     * @return la recherche de cliques sur le graphe (taille maximum, cliques maximales),
+     * recalculée seulement si le graphe a été modifié
+     */
+    public Cliques getCliques() {
+        GrapheCompact c = getGrapheCompact();
+        if (cliques == null || cliques.getGraphe() != c)
+            cliques = new Cliques(c);
+        return cliques;
     }
 
     /**
@@ -532,15 +847,89 @@ public class Graphe {
      * @return true si et seulement si this possède un sous-graphe isomorphe à {@code g}
      */
     public boolean possedeSousGrapheIsomorphe(Graphe g) {
-        throw new RuntimeException("Méthode à implémenter");
+        return getPlongements(g).existe();
+    }
+
+    /**
+     * @param motif un graphe
+     * @return les plongements de {@code motif} dans this, c'est-à-dire les façons de retrouver {@code motif}
+     * comme sous-graphe (pas forcément induit) de this
+     */
+    public Plongements getPlongements(Graphe motif) {
+        return new Plongements(motif.getGrapheCompact(), getHoteIndexe());
+    }
+
+    /**
+     * @return l'index de this pour la recherche de sous-graphes isomorphes,
+     * recalculé seulement si le graphe a été modifié
+     */
+    public HoteIndexe getHoteIndexe() {
+        GrapheCompact c = getGrapheCompact();
+        if (hoteIndexe == null || hoteIndexe.getGraphe() != c)
+            hoteIndexe = new HoteIndexe(c);
+        return hoteIndexe;
     }
 
     /**
      * @param s
      * @param t
-     * @return un ensemble de sommets qui forme un ensemble critique de plus petite taille entre {@code s} et {@code t}
+     * @return un ensemble de sommets qui forme un ensemble critique de plus petite taille entre {@code s} et {@code t},
+     * c'est-à-dire un ensemble de sommets autres que {@code s} et {@code t} dont la suppression déconnecte {@code s} de {@code t}.
+     * L'ensemble est calculé par flot maximum (coupe minimale sur le réseau des sommets dédoublés).
+     * Il est vide si {@code s} et {@code t} ne sont pas reliés. Si {@code s} et {@code t} sont voisins,
+     * aucun ensemble ne les sépare sans contenir l'un d'eux : on renvoie alors {@code {t}}.
      */
     public Set<Sommet> getEnsembleCritique(Sommet s, Sommet t){
-        throw new RuntimeException("Méthode à implémenter");
+        CoupesSommets coupes = getCoupesSommets();
+        GrapheCompact c = coupes.getGraphe();
+        int u = c.getId(s), v = c.getId(t);
+        if (u < 0 || v < 0)
+            return new HashSet<>();
+        int[] coupe = coupes.getCoupeMinimale(u, v);
+        if (coupe == null)
+            return new HashSet<>(Set.of(c.getSommet(v)));
+        return c.getSommets(coupe, 0, coupe.length);
+    }
+
+    /**
+     * @return le nombre maximum de chemins entre {@code s} et {@code t} deux à deux sans sommet commun
+     * (autre que {@code s} et {@code t})
+     */
+    public int getNbCheminsDisjoints(Sommet s, Sommet t) {
+        CoupesSommets coupes = getCoupesSommets();
+        int u = coupes.getGraphe().getId(s), v = coupes.getGraphe().getId(t);
+        return u < 0 || v < 0 ? 0 : coupes.getNbCheminsDisjoints(u, v);
+    }
+
+    /**
+     * @return l'arbre de coupes du graphe, qui donne en O(log n) le nombre minimum d'arêtes séparant
+     * deux sommets (calculé à la première demande et conservé tant que le graphe n'est pas modifié)
+     */
+    public ArbreDeCoupes getArbreDeCoupes() {
+        GrapheCompact c = getGrapheCompact();
+        if (arbreDeCoupes == null || arbreDeCoupes.getGraphe() != c)
+            arbreDeCoupes = new ArbreDeCoupes(c);
+        return arbreDeCoupes;
+    }
+
+    /**
+     * @return le nombre minimum d'arêtes à supprimer pour séparer {@code s} de {@code t}
+     * (0 s'ils ne sont pas reliés, Integer.MAX_VALUE si {@code s} et {@code t} sont égaux)
+     */
+    public int getCoupeMinimaleAretes(Sommet s, Sommet t) {
+        ArbreDeCoupes arbre = getArbreDeCoupes();
+        int u = arbre.getGraphe().getId(s), v = arbre.getGraphe().getId(t);
+        return u < 0 || v < 0 ? 0 : arbre.getCoupeMinimale(u, v);
+    }
+
+    /**
+     * @return le réseau de flot qui sert aux calculs de coupes entre deux sommets
+     * (reconstruit seulement si le graphe a été modifié)
+     */
+    public CoupesSommets getCoupesSommets() {
+        GrapheCompact c = getGrapheCompact();
+        if (coupesSommets == null || coupesSommets.getGraphe() != c)
+            coupesSommets = new CoupesSommets(c);
+        return coupesSommets;
     }
 }
@@ -0,0 +1,393 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.trains.plateau.Tuile;
+
+import java.util.*;
+
+/**
+ * Représentation compacte (format CSR) d'un graphe simple non-orienté pondéré.
+ * Les sommets sont renumérotés de 0 à n-1 par indice croissant (on parle d'identifiant),
+ * et les voisins de l'identifiant {@code u} sont rangés dans {@code voisins[debuts[u]..debuts[u+1]-1]}
+ * par identifiant croissant.
+ * Les surcouts et points de victoire sont stockés dans des tableaux d'entiers indexés par identifiant ;
+ * seuls les surcouts peuvent changer après la construction (voir {@link Graphe#modifierSurcout}).
+ */
+public class GrapheCompact {
+    /**
+     * Indice (numéro de tuile) de chaque identifiant, par ordre croissant.
+     */
+    private final int[] indices;
+    /**
+     * Table directe indice - {@code indiceMin} vers identifiant (-1 si absent),
+     * null lorsque les indices sont trop dispersés (on utilise alors une recherche dichotomique).
+     */
+    private final int[] positions;
+    private final int indiceMin;
+    /**
+     * Début de la liste des voisins de chaque identifiant ({@code n+1} cases).
+     */
+    private final int[] debuts;
+    /**
+     * Listes des voisins de tous les sommets mises bout à bout.
+     */
+    private final int[] voisins;
+    private final int[] surcouts;
+    private final int[] nbPointsVictoire;
+    /**
+     * Sommet correspondant à chaque identifiant, null si le graphe a été construit directement depuis les tuiles.
+     */
+    private final Sommet[] sommets;
+
+    /**
+     * Construit la représentation compacte d'un graphe sans le modifier.
+     * Les voisins qui ne sont pas des sommets de {@code g} sont ignorés et les arêtes
+     * déclarées d'un seul côté sont considérées comme présentes.
+     */
+    public GrapheCompact(Graphe g) {
+        sommets = g.getSommets().toArray(new Sommet[0]);
+        Arrays.sort(sommets, Comparator.comparingInt(Sommet::getIndice));
+        int n = sommets.length;
+        indices = new int[n];
+        surcouts = new int[n];
+        nbPointsVictoire = new int[n];
+        for (int u = 0; u < n; u++) {
+            indices[u] = sommets[u].getIndice();
+            surcouts[u] = sommets[u].getSurcout();
+            nbPointsVictoire[u] = sommets[u].getNbPointsVictoire();
+        }
+        indiceMin = n == 0 ? 0 : indices[0];
+        positions = creerPositions(indices, indiceMin);
+
+        int[] degres = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (Sommet voisin : sommets[u].getVoisins()) {
+                int v = getId(voisin.getIndice());
+                if (v >= 0 && v != u) {
+                    degres[u]++;
+                    degres[v]++;
+                }
+            }
+        }
+        int[] arcs = new int[n + 1];
+        for (int u = 0; u < n; u++)
+            arcs[u + 1] = arcs[u] + degres[u];
+        int[] cibles = new int[arcs[n]];
+        int[] curseurs = Arrays.copyOf(arcs, n);
+        for (int u = 0; u < n; u++) {
+            for (Sommet voisin : sommets[u].getVoisins()) {
+                int v = getId(voisin.getIndice());
+                if (v >= 0 && v != u) {
+                    cibles[curseurs[u]++] = v;
+                    cibles[curseurs[v]++] = u;
+                }
+            }
+        }
+        debuts = new int[n + 1];
+        voisins = dedoublonner(arcs, cibles, debuts);
+    }
+
+    /**
+     * Construit la représentation compacte directement à partir des tuiles du plateau,
+     * sans passer par des objets {@link Sommet}. Les tuiles qui ne peuvent pas être des sommets
+     * (tuiles Mer) sont ignorées, et l'indice de chaque sommet est la position de la tuile dans la liste.
+     *
+     * @param tuiles les tuiles du plateau, dans l'ordre de lecture
+     */
+    public static GrapheCompact depuisTuiles(List<Tuile> tuiles) {
+        Map<Tuile, Integer> ids = new IdentityHashMap<>();
+        for (Tuile tuile : tuiles)
+            if (tuile.peutEtreSommet())
+                ids.put(tuile, ids.size());
+        int n = ids.size();
+        int[] indices = new int[n];
+        int[] surcouts = new int[n];
+        int[] nbPointsVictoire = new int[n];
+        int[] arcs = new int[n + 1];
+        int u = 0;
+        for (int i = 0; i < tuiles.size(); i++) {
+            Tuile tuile = tuiles.get(i);
+            if (ids.containsKey(tuile)) {
+                indices[u] = i;
+                surcouts[u] = tuile.getSurcout();
+                nbPointsVictoire[u] = tuile.getNbPointsVictoire();
+                int degre = 0;
+                for (Tuile voisine : tuile.getVoisines())
+                    if (ids.containsKey(voisine))
+                        degre++;
+                arcs[u + 1] = arcs[u] + degre;
+                u++;
+            }
+        }
+        int[] cibles = new int[arcs[n]];
+        u = 0;
+        for (Tuile tuile : tuiles) {
+            if (ids.containsKey(tuile)) {
+                int k = arcs[u];
+                for (Tuile voisine : tuile.getVoisines()) {
+                    Integer v = ids.get(voisine);
+                    if (v != null)
+                        cibles[k++] = v;
+                }
+                u++;
+            }
+        }
+        int[] debuts = new int[n + 1];
+        int[] voisins = dedoublonner(arcs, cibles, debuts);
+        return new GrapheCompact(indices, debuts, voisins, surcouts, nbPointsVictoire, null);
+    }
+
+    /**
+     * Construit une représentation compacte à partir d'une liste d'arêtes entre identifiants.
+     *
+     * @param indices          indice de chaque identifiant, par ordre croissant
+     * @param surcouts         surcout de chaque identifiant
+     * @param nbPointsVictoire nombre de points de victoire de chaque identifiant
+     * @param sommets          sommet de chaque identifiant (peut être null)
+     * @param aretes           extrémités des arêtes : l'arête k relie {@code aretes[2k]} et {@code aretes[2k+1]}
+     * @param nbAretes         nombre d'arêtes à lire dans {@code aretes} (les doublons et boucles sont ignorés)
+     */
+    static GrapheCompact depuisAretes(int[] indices, int[] surcouts, int[] nbPointsVictoire, Sommet[] sommets, int[] aretes, int nbAretes) {
+        int n = indices.length;
+        int[] arcs = new int[n + 1];
+        for (int k = 0; k < 2 * nbAretes; k++)
+            arcs[aretes[k] + 1]++;
+        for (int u = 0; u < n; u++)
+            arcs[u + 1] += arcs[u];
+        int[] cibles = new int[arcs[n]];
+        int[] curseurs = Arrays.copyOf(arcs, n);
+        for (int k = 0; k < nbAretes; k++) {
+            int u = aretes[2 * k], v = aretes[2 * k + 1];
+            cibles[curseurs[u]++] = v;
+            cibles[curseurs[v]++] = u;
+        }
+        int[] debuts = new int[n + 1];
+        int[] voisins = dedoublonner(arcs, cibles, debuts);
+        return new GrapheCompact(indices, debuts, voisins, surcouts, nbPointsVictoire, sommets);
+    }
+
+    private GrapheCompact(int[] indices, int[] debuts, int[] voisins, int[] surcouts, int[] nbPointsVictoire, Sommet[] sommets) {
+        this.indices = indices;
+        this.debuts = debuts;
+        this.voisins = voisins;
+        this.surcouts = surcouts;
+        this.nbPointsVictoire = nbPointsVictoire;
+        this.sommets = sommets;
+        this.indiceMin = indices.length == 0 ? 0 : indices[0];
+        this.positions = creerPositions(indices, indiceMin);
+    }
+
+    private GrapheCompact(GrapheCompact structure, int[] surcouts) {
+        this.indices = structure.indices;
+        this.positions = structure.positions;
+        this.indiceMin = structure.indiceMin;
+        this.debuts = structure.debuts;
+        this.voisins = structure.voisins;
+        this.nbPointsVictoire = structure.nbPointsVictoire;
+        this.sommets = structure.sommets;
+        this.surcouts = surcouts;
+    }
+
+    /**
+     * @return un graphe qui partage les sommets et les arêtes de celui-ci (sans les copier)
+     * mais dont les surcouts sont ceux du tableau donné, qui n'est pas copié non plus
+     */
+    GrapheCompact avecSurcouts(int[] surcouts) {
+        return new GrapheCompact(this, surcouts);
+    }
+
+    /**
+     * Construit le sous-graphe induit par les identifiants dont le bit est à 1 dans {@code masque}
+     * (le bit {@code u % 64} du mot {@code u / 64}), en O(n + m) sans passer par des objets {@link Sommet}.
+     * L'identifiant d'un sommet dans le sous-graphe est son rang parmi les identifiants retenus, ce qui
+     * conserve l'ordre des indices et l'ordre des listes de voisins.
+     */
+    GrapheCompact induit(long[] masque) {
+        int nbMots = (indices.length + 63) >>> 6;
+        int[] rangsMots = new int[nbMots + 1];
+        for (int w = 0; w < nbMots; w++)
+            rangsMots[w + 1] = rangsMots[w] + Long.bitCount(masque[w]);
+        int n = rangsMots[nbMots];
+        int[] indicesInduits = new int[n];
+        int[] surcoutsInduits = new int[n];
+        int[] nbPointsVictoireInduits = new int[n];
+        Sommet[] sommetsInduits = sommets == null ? null : new Sommet[n];
+        int[] debutsInduits = new int[n + 1];
+        int nbArcs = 0;
+        int r = 0;
+        for (int u = 0; u < indices.length; u++) {
+            if ((masque[u >>> 6] & 1L << u) == 0)
+                continue;
+            indicesInduits[r] = indices[u];
+            surcoutsInduits[r] = surcouts[u];
+            nbPointsVictoireInduits[r] = nbPointsVictoire[u];
+            if (sommetsInduits != null)
+                sommetsInduits[r] = sommets[u];
+            for (int k = debuts[u]; k < debuts[u + 1]; k++)
+                if ((masque[voisins[k] >>> 6] & 1L << voisins[k]) != 0)
+                    nbArcs++;
+            debutsInduits[++r] = nbArcs;
+        }
+        int[] voisinsInduits = new int[nbArcs];
+        nbArcs = 0;
+        for (int u = 0; u < indices.length; u++) {
+            if ((masque[u >>> 6] & 1L << u) == 0)
+                continue;
+            for (int k = debuts[u]; k < debuts[u + 1]; k++) {
+                int v = voisins[k];
+                long bits = masque[v >>> 6];
+                if ((bits & 1L << v) != 0)
+                    voisinsInduits[nbArcs++] = rangsMots[v >>> 6] + Long.bitCount(bits & ((1L << v) - 1));
+            }
+        }
+        return new GrapheCompact(indicesInduits, debutsInduits, voisinsInduits, surcoutsInduits,
+                nbPointsVictoireInduits, sommetsInduits);
+    }
+
+    /**
+     * Trie chaque liste de voisins et supprime les doublons et les boucles.
+     *
+     * @param arcs   début de chaque liste dans {@code cibles}
+     * @param cibles listes de voisins non triées
+     * @param debuts tableau rempli avec le début de chaque liste dans le tableau renvoyé
+     * @return les listes de voisins triées et sans doublons mises bout à bout
+     */
+    private static int[] dedoublonner(int[] arcs, int[] cibles, int[] debuts) {
+        int n = debuts.length - 1;
+        int taille = 0;
+        for (int u = 0; u < n; u++) {
+            Arrays.sort(cibles, arcs[u], arcs[u + 1]);
+            debuts[u] = taille;
+            for (int k = arcs[u]; k < arcs[u + 1]; k++)
+                if (cibles[k] != u && (taille == debuts[u] || cibles[taille - 1] != cibles[k]))
+                    cibles[taille++] = cibles[k];
+        }
+        debuts[n] = taille;
+        return Arrays.copyOf(cibles, taille);
+    }
+
+    private static int[] creerPositions(int[] indices, int indiceMin) {
+        int n = indices.length;
+        if (n == 0)
+            return null;
+        long etendue = (long) indices[n - 1] - indiceMin + 1;
+        if (etendue > 4L * n + 64)
+            return null;
+        int[] positions = new int[(int) etendue];
+        Arrays.fill(positions, -1);
+        for (int u = 0; u < n; u++)
+            positions[indices[u] - indiceMin] = u;
+        return positions;
+    }
+
+    /**
+     * @return le nombre de sommets
+     */
+    public int getNbSommets() {
+        return indices.length;
+    }
+
+    /**
+     * @return le nombre d'arêtes
+     */
+    public int getNbAretes() {
+        return voisins.length / 2;
+    }
+
+    /**
+     * @param indice l'indice d'un sommet
+     * @return l'identifiant du sommet d'indice {@code indice}, ou -1 s'il n'est pas dans le graphe
+     */
+    public int getId(int indice) {
+        if (positions != null) {
+            long p = (long) indice - indiceMin;
+            return p < 0 || p >= positions.length ? -1 : positions[(int) p];
+        }
+        int id = Arrays.binarySearch(indices, indice);
+        return id < 0 ? -1 : id;
+    }
+
+    /**
+     * @return l'identifiant du sommet {@code s}, ou -1 s'il n'est pas dans le graphe
+     */
+    public int getId(Sommet s) {
+        return getId(s.getIndice());
+    }
+
+    /**
+     * @return l'indice du sommet d'identifiant {@code u}
+     */
+    public int getIndice(int u) {
+        return indices[u];
+    }
+
+    /**
+     * @return le sommet d'identifiant {@code u}, ou null si le graphe a été construit depuis les tuiles
+     */
+    public Sommet getSommet(int u) {
+        return sommets == null ? null : sommets[u];
+    }
+
+    /**
+     * @return l'ensemble des sommets dont les identifiants sont dans {@code ids[debut..fin-1]}
+     */
+    public Set<Sommet> getSommets(int[] ids, int debut, int fin) {
+        Set<Sommet> ensemble = new HashSet<>();
+        for (int k = debut; k < fin; k++)
+            ensemble.add(getSommet(ids[k]));
+        return ensemble;
+    }
+
+    public int degre(int u) {
+        return debuts[u + 1] - debuts[u];
+    }
+
+    /**
+     * @return la position du premier voisin de {@code u} dans le tableau des voisins
+     */
+    public int debutVoisins(int u) {
+        return debuts[u];
+    }
+
+    /**
+     * @return la position qui suit le dernier voisin de {@code u} dans le tableau des voisins
+     */
+    public int finVoisins(int u) {
+        return debuts[u + 1];
+    }
+
+    /**
+     * @param k une position comprise entre {@code debutVoisins(u)} et {@code finVoisins(u)}
+     * @return l'identifiant du voisin rangé à la position {@code k}
+     */
+    public int getVoisin(int k) {
+        return voisins[k];
+    }
+
+    /**
+     * @return true si et seulement si les identifiants {@code u} et {@code v} sont voisins
+     */
+    public boolean sontVoisins(int u, int v) {
+        return positionVoisin(u, v) >= 0;
+    }
+
+    /**
+     * @return la position de {@code v} dans le tableau des voisins, entre {@code debutVoisins(u)}
+     * et {@code finVoisins(u)}, ou -1 si {@code v} n'est pas voisin de {@code u}
+     */
+    public int positionVoisin(int u, int v) {
+        int k = Arrays.binarySearch(voisins, debuts[u], debuts[u + 1], v);
+        return k < 0 ? -1 : k;
+    }
+
+    public int getSurcout(int u) {
+        return surcouts[u];
+    }
+
+    void setSurcout(int u, int surcout) {
+        surcouts[u] = surcout;
+    }
+
+    public int getNbPointsVictoire(int u) {
+        return nbPointsVictoire[u];
+    }
+}
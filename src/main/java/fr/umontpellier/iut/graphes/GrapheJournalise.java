@@ -0,0 +1,197 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Graphe dont les modifications faites par {@code ajouterSommet}, {@code supprimerSommet}, {@code ajouterArete},
+ * {@code supprimerArete} et {@code modifierSurcout} sont enregistrées dans un journal, pour pouvoir les annuler.
+ * <p>
+ * Un point de restauration est simplement la taille du journal ({@link #creerPointDeRestauration} est en O(1)) et
+ * {@link #restaurer} annule les modifications faites depuis, de la plus récente à la plus ancienne, en temps
+ * proportionnel à leur nombre. On peut ainsi essayer une modification, évaluer le graphe obtenu et revenir en
+ * arrière sans copier le graphe. Les points de restauration créés après le point restauré ne sont plus valables.
+ * <p>
+ * Le graphe construit à partir des sommets d'un autre graphe travaille sur des copies : les essais ne modifient
+ * ni les voisins ni les surcouts du graphe d'origine, dont les analyses (distances en cache...) restent valables
+ * pendant les essais. Les modifications faites directement sur les sommets ne sont pas enregistrées.
+ */
+public class GrapheJournalise extends Graphe {
+    private static final byte AJOUT_SOMMET = 0;
+    private static final byte SUPPRESSION_SOMMET = 1;
+    private static final byte AJOUT_ARETE = 2;
+    private static final byte SUPPRESSION_ARETE = 3;
+    private static final byte MODIFICATION_SURCOUT = 4;
+
+    /**
+     * Entrée k du journal : l'opération, le ou les sommets concernés et l'ancien surcout pour une modification de surcout.
+     */
+    private byte[] operations = new byte[16];
+    private Sommet[] premiers = new Sommet[16];
+    private Sommet[] seconds = new Sommet[16];
+    private int[] anciensSurcouts = new int[16];
+    private int taille;
+    /**
+     * Vrai pendant une restauration, pour ne pas enregistrer les opérations qui annulent le journal.
+     */
+    private boolean restauration;
+
+    /**
+     * Construit un graphe vide
+     */
+    public GrapheJournalise() {
+        super();
+    }
+
+    /**
+     * Construit un graphe sur des copies des sommets donnés, reliées entre elles comme les originaux
+     * (les voisins qui ne sont pas dans l'ensemble sont ignorés) ; le journal est vide.
+     */
+    public GrapheJournalise(Set<Sommet> sommets) {
+        super(copier(sommets));
+    }
+
+    /**
+     * @return des copies des sommets, en O(n + m), dont les voisins sont les copies des voisins
+     */
+    private static Set<Sommet> copier(Set<Sommet> sommets) {
+        Map<Integer, Sommet> copies = new HashMap<>();
+        for (Sommet s : sommets)
+            copies.put(s.getIndice(), new Sommet.SommetBuilder().setIndice(s.getIndice()).setSurcout(s.getSurcout())
+                    .setNbPointsVictoire(s.getNbPointsVictoire()).setJoueurs(new HashSet<>(s.getJoueurs()))
+                    .createSommet());
+        for (Sommet s : sommets) {
+            Sommet copie = copies.get(s.getIndice());
+            for (Sommet v : s.getVoisins()) {
+                Sommet voisin = copies.get(v.getIndice());
+                if (voisin != null)
+                    copie.ajouterVoisin(voisin);
+            }
+        }
+        return new HashSet<>(copies.values());
+    }
+
+    private void enregistrer(byte operation, Sommet premier, Sommet second, int ancienSurcout) {
+        if (restauration)
+            return;
+        if (taille == operations.length) {
+            operations = Arrays.copyOf(operations, 2 * taille);
+            premiers = Arrays.copyOf(premiers, 2 * taille);
+            seconds = Arrays.copyOf(seconds, 2 * taille);
+            anciensSurcouts = Arrays.copyOf(anciensSurcouts, 2 * taille);
+        }
+        operations[taille] = operation;
+        premiers[taille] = premier;
+        seconds[taille] = second;
+        anciensSurcouts[taille] = ancienSurcout;
+        taille++;
+    }
+
+    /**
+     * @return un point de restauration correspondant à l'état actuel du graphe
+     */
+    public int creerPointDeRestauration() {
+        return taille;
+    }
+
+    /**
+     * @return le nombre de modifications enregistrées
+     */
+    public int getTailleJournal() {
+        return taille;
+    }
+
+    /**
+     * Annule toutes les modifications faites depuis la création du point de restauration donné.
+     *
+     * @param point un point renvoyé par {@link #creerPointDeRestauration} qui n'a pas été annulé depuis
+     */
+    public void restaurer(int point) {
+        if (point < 0 || point > taille)
+            throw new IllegalArgumentException("Point de restauration invalide : " + point);
+        restauration = true;
+        try {
+            while (taille > point) {
+                taille--;
+                Sommet s = premiers[taille], t = seconds[taille];
+                switch (operations[taille]) {
+                    case AJOUT_SOMMET -> super.supprimerSommet(s);
+                    case SUPPRESSION_SOMMET -> super.ajouterSommet(s);
+                    case AJOUT_ARETE -> super.supprimerArete(s, t);
+                    case SUPPRESSION_ARETE -> super.ajouterArete(s, t);
+                    case MODIFICATION_SURCOUT -> super.modifierSurcout(s, anciensSurcouts[taille]);
+                }
+                premiers[taille] = null;
+                seconds[taille] = null;
+            }
+        } finally {
+            restauration = false;
+        }
+    }
+
+    /**
+     * Vide le journal (les points de restauration déjà créés ne sont plus valables).
+     */
+    public void viderJournal() {
+        Arrays.fill(premiers, 0, taille, null);
+        Arrays.fill(seconds, 0, taille, null);
+        taille = 0;
+    }
+
+    @Override
+    public boolean ajouterSommet(Sommet s) {
+        if (!super.ajouterSommet(s))
+            return false;
+        enregistrer(AJOUT_SOMMET, s, null, 0);
+        return true;
+    }
+
+    /**
+     * Supprime le sommet ; ses arêtes sont enregistrées une par une pour être rétablies par {@link #restaurer}.
+     */
+    @Override
+    public boolean supprimerSommet(Sommet s) {
+        if (!getSommets().contains(s))
+            return super.supprimerSommet(s);
+        List<Sommet> voisins = new ArrayList<>();
+        for (Sommet v : s.getVoisins())
+            if (v.estVoisin(s))
+                voisins.add(v);
+        super.supprimerSommet(s);
+        for (Sommet v : voisins)
+            enregistrer(SUPPRESSION_ARETE, s, v, 0);
+        enregistrer(SUPPRESSION_SOMMET, s, null, 0);
+        return true;
+    }
+
+    @Override
+    public void ajouterArete(Sommet s, Sommet t) {
+        boolean nouvelle = !s.estVoisin(t) || !t.estVoisin(s);
+        super.ajouterArete(s, t);
+        if (nouvelle)
+            enregistrer(AJOUT_ARETE, s, t, 0);
+    }
+
+    @Override
+    public void supprimerArete(Sommet s, Sommet t) {
+        boolean presente = s.estVoisin(t);
+        super.supprimerArete(s, t);
+        if (presente)
+            enregistrer(SUPPRESSION_ARETE, s, t, 0);
+    }
+
+    @Override
+    public void modifierSurcout(Sommet s, int surcout) {
+        Sommet sommet = getSommet(s.getIndice());
+        if (sommet == null || sommet.getSurcout() == surcout)
+            return;
+        int ancien = sommet.getSurcout();
+        super.modifierSurcout(sommet, surcout);
+        enregistrer(MODIFICATION_SURCOUT, sommet, null, ancien);
+    }
+}
@@ -0,0 +1,114 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Index d'un graphe hôte pour la recherche de sous-graphes isomorphes ({@link Plongements}), calculé une seule fois
+ * et partagé par toutes les recherches sur ce graphe :
+ * <ul>
+ *     <li>les sommets triés par degré décroissant, pour parcourir directement ceux de degré au moins d ;</li>
+ *     <li>la signature de chaque sommet, c'est-à-dire les degrés de ses voisins triés, qui doit dominer celle
+ *     d'un sommet du motif pour pouvoir en être l'image ;</li>
+ *     <li>la matrice d'adjacence en bits pour tester une arête en O(1) (seulement jusqu'à
+ *     {@value #TAILLE_MAX_MATRICE} sommets, au-delà on cherche dans les listes de voisins triées).</li>
+ * </ul>
+ * L'index ne change plus une fois construit et peut être utilisé par plusieurs fils d'exécution à la fois.
+ */
+public class HoteIndexe {
+    public static final int TAILLE_MAX_MATRICE = 4096;
+
+    private final GrapheCompact graphe;
+    private final long[][] adjacence;
+    /**
+     * Identifiants par degré décroissant (par identifiant croissant à degré égal).
+     */
+    private final int[] parDegre;
+    /**
+     * {@code nbDegreAuMoins[d]} sommets ont un degré au moins égal à d (pour d allant jusqu'au degré maximum + 1).
+     */
+    private final int[] nbDegreAuMoins;
+    /**
+     * Degrés des voisins de chaque sommet par ordre croissant, rangés comme les listes de voisins du graphe.
+     */
+    private final int[] signatures;
+
+    public HoteIndexe(GrapheCompact graphe) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        int degreMax = 0;
+        for (int u = 0; u < n; u++)
+            degreMax = Math.max(degreMax, graphe.degre(u));
+        // Tri par dénombrement des degrés
+        nbDegreAuMoins = new int[degreMax + 2];
+        for (int u = 0; u < n; u++)
+            nbDegreAuMoins[graphe.degre(u)]++;
+        for (int d = degreMax - 1; d >= 0; d--)
+            nbDegreAuMoins[d] += nbDegreAuMoins[d + 1];
+        parDegre = new int[n];
+        int[] curseurs = new int[degreMax + 1];
+        for (int d = 0; d <= degreMax; d++)
+            curseurs[d] = nbDegreAuMoins[d + 1];
+        for (int u = 0; u < n; u++)
+            parDegre[curseurs[graphe.degre(u)]++] = u;
+
+        signatures = new int[2 * graphe.getNbAretes()];
+        for (int u = 0; u < n; u++) {
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++)
+                signatures[k] = graphe.degre(graphe.getVoisin(k));
+            Arrays.sort(signatures, graphe.debutVoisins(u), graphe.finVoisins(u));
+        }
+
+        if (n <= TAILLE_MAX_MATRICE) {
+            adjacence = new long[n][(n + 63) >>> 6];
+            for (int u = 0; u < n; u++)
+                for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++)
+                    adjacence[u][graphe.getVoisin(k) >>> 6] |= 1L << graphe.getVoisin(k);
+        } else {
+            adjacence = null;
+        }
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    public int getNbSommets() {
+        return graphe.getNbSommets();
+    }
+
+    public boolean sontVoisins(int u, int v) {
+        if (adjacence != null)
+            return (adjacence[u][v >>> 6] & 1L << v) != 0;
+        return graphe.positionVoisin(u, v) >= 0;
+    }
+
+    /**
+     * @return le nombre de sommets de degré au moins {@code d} (ce sont les premiers de {@link #getParDegre})
+     */
+    public int getNbDegreAuMoins(int d) {
+        return d >= nbDegreAuMoins.length ? 0 : nbDegreAuMoins[Math.max(d, 0)];
+    }
+
+    /**
+     * @return le sommet de rang {@code rang} dans l'ordre des degrés décroissants
+     */
+    public int getParDegre(int rang) {
+        return parDegre[rang];
+    }
+
+    /**
+     * @param degresVoisins les degrés des voisins d'un sommet du motif, par ordre croissant
+     * @return true si les voisins de {@code v} peuvent accueillir ceux du sommet du motif : {@code v} a au moins
+     * autant de voisins, et le i-ème plus grand degré parmi ses voisins est au moins le i-ème plus grand du motif
+     */
+    public boolean domine(int v, int[] degresVoisins) {
+        int debut = graphe.debutVoisins(v), fin = graphe.finVoisins(v);
+        int a = degresVoisins.length;
+        if (a > fin - debut)
+            return false;
+        for (int i = 1; i <= a; i++)
+            if (degresVoisins[a - i] > signatures[fin - i])
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,138 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Table associant à chaque indice de sommet le sommet correspondant.
+ * Tant que les indices sont positifs et peu dispersés (c'est le cas des tuiles du plateau),
+ * les sommets sont rangés dans un tableau direct. Sinon, la table passe en adressage ouvert
+ * (sondage linéaire sur des clés entières, suppression par décalage arrière).
+ */
+class IndexSommets {
+    private static final int CAPACITE_INITIALE = 16;
+
+    /**
+     * Tableau direct indice - sommet, null quand la table est en adressage ouvert.
+     */
+    private Sommet[] direct;
+    /**
+     * Cases de la table en adressage ouvert (une case est libre si sa valeur est null).
+     */
+    private int[] cles;
+    private Sommet[] valeurs;
+    private int taille;
+
+    IndexSommets() {
+        direct = new Sommet[CAPACITE_INITIALE];
+    }
+
+    /**
+     * @return le sommet d'indice {@code i}, ou null s'il n'est pas dans la table
+     */
+    Sommet get(int i) {
+        if (direct != null)
+            return i >= 0 && i < direct.length ? direct[i] : null;
+        int masque = cles.length - 1;
+        for (int k = hacher(i) & masque; valeurs[k] != null; k = (k + 1) & masque)
+            if (cles[k] == i)
+                return valeurs[k];
+        return null;
+    }
+
+    /**
+     * Ajoute ou remplace le sommet associé à l'indice de {@code s}.
+     */
+    void put(Sommet s) {
+        int i = s.getIndice();
+        if (direct != null) {
+            if (i >= 0 && i < direct.length) {
+                if (direct[i] == null)
+                    taille++;
+                direct[i] = s;
+                return;
+            }
+            if (i >= 0 && i < 4 * (taille + 1) + 64) {
+                direct = Arrays.copyOf(direct, Math.max(i + 1, 2 * direct.length));
+                direct[i] = s;
+                taille++;
+                return;
+            }
+            passerEnAdressageOuvert();
+        }
+        if (2 * (taille + 1) > cles.length)
+            redimensionner(2 * cles.length);
+        int masque = cles.length - 1;
+        int k = hacher(i) & masque;
+        while (valeurs[k] != null && cles[k] != i)
+            k = (k + 1) & masque;
+        if (valeurs[k] == null)
+            taille++;
+        cles[k] = i;
+        valeurs[k] = s;
+    }
+
+    /**
+     * Retire le sommet d'indice {@code i} s'il est présent.
+     */
+    void remove(int i) {
+        if (direct != null) {
+            if (i >= 0 && i < direct.length && direct[i] != null) {
+                direct[i] = null;
+                taille--;
+            }
+            return;
+        }
+        int masque = cles.length - 1;
+        int k = hacher(i) & masque;
+        while (valeurs[k] != null && cles[k] != i)
+            k = (k + 1) & masque;
+        if (valeurs[k] == null)
+            return;
+        taille--;
+        // Décalage arrière : on recule les entrées suivantes qui ne sont plus à leur place
+        int trou = k;
+        for (int j = (k + 1) & masque; valeurs[j] != null; j = (j + 1) & masque) {
+            int ideal = hacher(cles[j]) & masque;
+            if (((j - ideal) & masque) >= ((j - trou) & masque)) {
+                cles[trou] = cles[j];
+                valeurs[trou] = valeurs[j];
+                trou = j;
+            }
+        }
+        valeurs[trou] = null;
+    }
+
+    int size() {
+        return taille;
+    }
+
+    private void passerEnAdressageOuvert() {
+        Sommet[] anciens = direct;
+        direct = null;
+        int capacite = CAPACITE_INITIALE;
+        while (capacite < 2 * (taille + 1))
+            capacite *= 2;
+        cles = new int[capacite];
+        valeurs = new Sommet[capacite];
+        taille = 0;
+        for (Sommet s : anciens)
+            if (s != null)
+                put(s);
+    }
+
+    private void redimensionner(int capacite) {
+        int[] anciennesCles = cles;
+        Sommet[] anciennesValeurs = valeurs;
+        cles = new int[capacite];
+        valeurs = new Sommet[capacite];
+        taille = 0;
+        for (int k = 0; k < anciennesCles.length; k++)
+            if (anciennesValeurs[k] != null)
+                put(anciennesValeurs[k]);
+    }
+
+    private static int hacher(int i) {
+        int h = i * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,145 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Isthmes et composantes 2-arête-connexes d'un {@link GrapheCompact}, calculés en un seul
+ * parcours en profondeur itératif (algorithme de Tarjan, valeurs {@code low}), en O(n + m).
+ * Une arête est un isthme si sa suppression augmente le nombre de classes de connexité ;
+ * les composantes 2-arête-connexes sont les classes de connexité obtenues après suppression de tous les isthmes.
+ */
+public class Isthmes {
+    private final GrapheCompact graphe;
+    /**
+     * Extrémités des isthmes : l'isthme k relie {@code extremites[2k]} (parent dans le parcours)
+     * à {@code extremites[2k+1]}.
+     */
+    private final int[] extremites;
+    private final int nbIsthmes;
+    /**
+     * Numéro de composante 2-arête-connexe de chaque identifiant.
+     */
+    private final int[] composantes;
+    private final int nbComposantes;
+
+    public Isthmes(GrapheCompact graphe) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        int[] ordre = new int[n];
+        int[] low = new int[n];
+        int[] parents = new int[n];
+        int[] curseurs = new int[n];
+        int[] pileParcours = new int[n];
+        int[] pileComposante = new int[n];
+        int[] isthmes = new int[2 * Math.max(0, n - 1)];
+        composantes = new int[n];
+        Arrays.fill(ordre, -1);
+
+        int compteur = 0, b = 0, c = 0;
+        for (int racine = 0; racine < n; racine++) {
+            if (ordre[racine] >= 0)
+                continue;
+            int hautParcours = 0, hautComposante = 0;
+            pileParcours[hautParcours++] = racine;
+            pileComposante[hautComposante++] = racine;
+            ordre[racine] = low[racine] = compteur++;
+            parents[racine] = -1;
+            curseurs[racine] = graphe.debutVoisins(racine);
+            while (hautParcours > 0) {
+                int u = pileParcours[hautParcours - 1];
+                if (curseurs[u] < graphe.finVoisins(u)) {
+                    int k = curseurs[u]++;
+                    int v = graphe.getVoisin(k);
+                    if (ordre[v] < 0) {
+                        ordre[v] = low[v] = compteur++;
+                        parents[v] = u;
+                        curseurs[v] = graphe.debutVoisins(v);
+                        pileParcours[hautParcours++] = v;
+                        pileComposante[hautComposante++] = v;
+                    } else if (v != parents[u]) {
+                        // Dans un graphe simple, seule l'arête vers le parent ne doit pas compter
+                        low[u] = Math.min(low[u], ordre[v]);
+                    }
+                } else {
+                    hautParcours--;
+                    if (low[u] == ordre[u]) {
+                        // u est la racine d'une composante : on dépile jusqu'à u
+                        int w;
+                        do {
+                            w = pileComposante[--hautComposante];
+                            composantes[w] = c;
+                        } while (w != u);
+                        c++;
+                    }
+                    if (hautParcours > 0) {
+                        int p = pileParcours[hautParcours - 1];
+                        low[p] = Math.min(low[p], low[u]);
+                        if (low[u] > ordre[p]) {
+                            isthmes[2 * b] = p;
+                            isthmes[2 * b + 1] = u;
+                            b++;
+                        }
+                    }
+                }
+            }
+        }
+        extremites = Arrays.copyOf(isthmes, 2 * b);
+        nbIsthmes = b;
+        nbComposantes = c;
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    public int getNbIsthmes() {
+        return nbIsthmes;
+    }
+
+    /**
+     * @return l'identifiant de l'extrémité de l'isthme {@code k} la plus proche de la racine du parcours
+     */
+    public int getOrigine(int k) {
+        return extremites[2 * k];
+    }
+
+    /**
+     * @return l'identifiant de l'autre extrémité de l'isthme {@code k}
+     */
+    public int getDestination(int k) {
+        return extremites[2 * k + 1];
+    }
+
+    /**
+     * @return l'ensemble des isthmes sous forme de paires de sommets
+     */
+    public Set<Set<Sommet>> getEnsembleIsthmes() {
+        Set<Set<Sommet>> aretes = new HashSet<>();
+        for (int k = 0; k < nbIsthmes; k++)
+            aretes.add(Set.of(graphe.getSommet(getOrigine(k)), graphe.getSommet(getDestination(k))));
+        return aretes;
+    }
+
+    public int getNbComposantes() {
+        return nbComposantes;
+    }
+
+    /**
+     * @return le numéro (entre 0 et c-1) de la composante 2-arête-connexe de l'identifiant {@code u}
+     */
+    public int getComposante(int u) {
+        return composantes[u];
+    }
+
+    /**
+     * @return les composantes 2-arête-connexes sous forme d'ensembles de sommets
+     */
+    public Set<Set<Sommet>> getEnsembleComposantes() {
+        List<Set<Sommet>> ensembles = new ArrayList<>(nbComposantes);
+        for (int k = 0; k < nbComposantes; k++)
+            ensembles.add(new HashSet<>());
+        for (int u = 0; u < composantes.length; u++)
+            ensembles.get(composantes[u]).add(graphe.getSommet(u));
+        return new HashSet<>(ensembles);
+    }
+}
@@ -0,0 +1,363 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Plongements d'un graphe motif dans un graphe hôte : applications injectives des sommets du motif vers ceux de
+ * l'hôte qui envoient chaque arête du motif sur une arête de l'hôte (le sous-graphe de l'hôte obtenu n'est pas
+ * forcément induit, il peut avoir des arêtes en plus).
+ * <p>
+ * La recherche suit le schéma de VF2 / RI : les sommets du motif sont placés dans un ordre fixé à l'avance
+ * (d'abord le plus rare, c'est-à-dire celui qui a le moins d'images possibles, puis à chaque fois celui qui a le
+ * plus de voisins déjà placés), si bien que l'image d'un sommet est cherchée parmi les voisins de l'image d'un
+ * sommet déjà placé. Chaque sommet du motif n'est envoyé que sur des sommets de l'hôte de degré suffisant dont la
+ * signature domine la sienne (voir {@link HoteIndexe#domine}), et ses arêtes vers les sommets déjà placés
+ * sont vérifiées dans la matrice d'adjacence de l'hôte.
+ * <p>
+ * Un plongement est un tableau indexé par les identifiants du motif qui donne l'identifiant de l'image dans l'hôte.
+ * <p>
+ * On peut imposer les premiers sommets placés et leurs images (voir {@link #parcourirProlongements}) : c'est ainsi
+ * que {@link RechercheMotifs} prolonge les plongements d'un motif contenu dans un autre au lieu de les rechercher.
+ */
+public class Plongements implements Iterable<int[]> {
+    private final GrapheCompact motif;
+    private final HoteIndexe hote;
+    /**
+     * Sommets du motif dans l'ordre où ils sont placés.
+     */
+    private final int[] ordre;
+    /**
+     * Pour chaque position, la position d'un voisin placé avant parmi les voisins de l'image duquel on cherche
+     * l'image (-1 si aucun voisin n'est placé avant : on parcourt alors tous les sommets de degré suffisant).
+     */
+    private final int[] parents;
+    /**
+     * Pour chaque position, les positions des autres voisins placés avant.
+     */
+    private final int[][] voisinsPlaces;
+    /**
+     * Images possibles de chaque sommet du motif, sous forme d'ensemble de bits sur les identifiants de l'hôte.
+     */
+    private final long[][] domaines;
+    private final boolean impossible;
+    /**
+     * Nombre de sommets imposés au début de l'ordre.
+     */
+    private final int nbPremiers;
+
+    public Plongements(GrapheCompact motif, GrapheCompact hote) {
+        this(motif, new HoteIndexe(hote));
+    }
+
+    public Plongements(GrapheCompact motif, HoteIndexe hote) {
+        this(motif, hote, new int[0]);
+    }
+
+    /**
+     * @param premiers des sommets distincts du motif, placés en premier dans cet ordre
+     */
+    Plongements(GrapheCompact motif, HoteIndexe hote, int[] premiers) {
+        this.motif = motif;
+        this.hote = hote;
+        int k = motif.getNbSommets();
+        int n = hote.getNbSommets();
+        boolean vide = k > n || motif.getNbAretes() > hote.getGraphe().getNbAretes();
+
+        domaines = new long[k][];
+        int[] tailles = new int[k];
+        for (int u = 0; u < k && !vide; u++) {
+            int[] degresVoisins = new int[motif.degre(u)];
+            for (int i = motif.debutVoisins(u); i < motif.finVoisins(u); i++)
+                degresVoisins[i - motif.debutVoisins(u)] = motif.degre(motif.getVoisin(i));
+            Arrays.sort(degresVoisins);
+            domaines[u] = new long[(n + 63) >>> 6];
+            for (int r = 0; r < hote.getNbDegreAuMoins(motif.degre(u)); r++) {
+                int v = hote.getParDegre(r);
+                if (hote.domine(v, degresVoisins)) {
+                    domaines[u][v >>> 6] |= 1L << v;
+                    tailles[u]++;
+                }
+            }
+            vide = tailles[u] == 0;
+        }
+        impossible = vide;
+
+        ordre = new int[k];
+        parents = new int[k];
+        voisinsPlaces = new int[k][];
+        nbPremiers = premiers.length;
+        if (!impossible)
+            ordonner(tailles, premiers);
+    }
+
+    /**
+     * Ordonne les sommets du motif : d'abord les sommets imposés, puis à chaque étape le sommet qui a le plus
+     * de voisins déjà placés, puis le moins d'images possibles, puis le plus grand degré.
+     */
+    private void ordonner(int[] tailles, int[] premiers) {
+        int k = ordre.length;
+        int[] positions = new int[k];
+        Arrays.fill(positions, -1);
+        int[] nbVoisinsPlaces = new int[k];
+        for (int i = 0; i < k; i++) {
+            int meilleur = i < premiers.length ? premiers[i] : -1;
+            for (int u = 0; u < k && i >= premiers.length; u++) {
+                if (positions[u] >= 0)
+                    continue;
+                if (meilleur < 0 || nbVoisinsPlaces[u] > nbVoisinsPlaces[meilleur]
+                        || nbVoisinsPlaces[u] == nbVoisinsPlaces[meilleur] && (tailles[u] < tailles[meilleur]
+                        || tailles[u] == tailles[meilleur] && motif.degre(u) > motif.degre(meilleur)))
+                    meilleur = u;
+            }
+            ordre[i] = meilleur;
+            positions[meilleur] = i;
+            parents[i] = -1;
+            int[] places = new int[nbVoisinsPlaces[meilleur]];
+            int nbPlaces = 0;
+            for (int j = motif.debutVoisins(meilleur); j < motif.finVoisins(meilleur); j++) {
+                int v = motif.getVoisin(j);
+                if (positions[v] < 0)
+                    nbVoisinsPlaces[v]++;
+                else if (positions[v] != i)
+                    places[nbPlaces++] = positions[v];
+            }
+            // Le voisin placé le plus tôt sert de parent, les autres sont vérifiés dans la matrice
+            Arrays.sort(places);
+            if (nbPlaces > 0) {
+                parents[i] = places[0];
+                places = Arrays.copyOfRange(places, 1, nbPlaces);
+            }
+            voisinsPlaces[i] = places;
+        }
+    }
+
+    public GrapheCompact getMotif() {
+        return motif;
+    }
+
+    public HoteIndexe getHote() {
+        return hote;
+    }
+
+    /**
+     * @return true si le motif a au moins un plongement dans l'hôte (la recherche s'arrête au premier trouvé)
+     */
+    public boolean existe() {
+        return getPremier() != null;
+    }
+
+    /**
+     * @return le premier plongement trouvé, ou null s'il n'y en a aucun
+     */
+    public int[] getPremier() {
+        Iterator<int[]> iterateur = iterator();
+        return iterateur.hasNext() ? iterateur.next() : null;
+    }
+
+    /**
+     * @return le premier plongement trouvé sous forme d'une Map des sommets du motif vers ceux de l'hôte,
+     * ou null s'il n'y en a aucun
+     */
+    public Map<Sommet, Sommet> getPremierPlongement() {
+        int[] plongement = getPremier();
+        if (plongement == null)
+            return null;
+        Map<Sommet, Sommet> images = new HashMap<>();
+        for (int u = 0; u < plongement.length; u++)
+            images.put(motif.getSommet(u), hote.getGraphe().getSommet(plongement[u]));
+        return images;
+    }
+
+    /**
+     * @return le nombre de plongements (deux plongements qui ne diffèrent que par un automorphisme du motif
+     * sont comptés tous les deux)
+     */
+    public long compter() {
+        Recherche recherche = new Recherche();
+        long nb = 0;
+        while (recherche.avancer())
+            nb++;
+        return nb;
+    }
+
+    /**
+     * Parcourt les plongements qui envoient les sommets imposés au constructeur sur les images données.
+     * Les arêtes du motif entre sommets imposés sont vérifiées, puis seuls les autres sommets sont cherchés.
+     *
+     * @param imagesPremiers l'image de chaque sommet imposé, dans le même ordre (des sommets distincts de l'hôte)
+     * @param visiteur       appelé sur chaque plongement trouvé (peut être null pour seulement compter)
+     * @return le nombre de plongements trouvés
+     */
+    long parcourirProlongements(int[] imagesPremiers, Consumer<int[]> visiteur) {
+        Recherche recherche = new Recherche(imagesPremiers);
+        long nb = 0;
+        while (recherche.avancer()) {
+            nb++;
+            if (visiteur != null)
+                visiteur.accept(recherche.getPlongement());
+        }
+        return nb;
+    }
+
+    /**
+     * @return un itérateur sur tous les plongements, calculés au fur et à mesure
+     */
+    @Override
+    public Iterator<int[]> iterator() {
+        Recherche recherche = new Recherche();
+        return new Iterator<>() {
+            private boolean calcule;
+            private boolean trouve;
+
+            @Override
+            public boolean hasNext() {
+                if (!calcule) {
+                    trouve = recherche.avancer();
+                    calcule = true;
+                }
+                return trouve;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                calcule = false;
+                return recherche.getPlongement();
+            }
+        };
+    }
+
+    /**
+     * État d'une recherche en profondeur sans récursion, qui peut être interrompue après chaque plongement
+     * et reprise ensuite.
+     */
+    private class Recherche {
+        private final int[] images = new int[ordre.length];
+        private final int[] curseurs = new int[ordre.length];
+        private final int[] fins = new int[ordre.length];
+        private final long[] utilises = new long[(hote.getNbSommets() + 63) >>> 6];
+        private int profondeur;
+        private boolean termine;
+        private boolean debut = true;
+        /**
+         * Nombre de positions fixées, en deçà desquelles la recherche ne revient pas.
+         */
+        private final int base;
+
+        Recherche() {
+            termine = impossible;
+            base = 0;
+        }
+
+        /**
+         * Recherche dont les {@code nbPremiers} premières positions sont fixées : elle ne revient jamais
+         * en deçà, et ne trouve rien si les images données ne respectent pas les arêtes du motif.
+         */
+        Recherche(int[] imagesPremiers) {
+            termine = impossible || imagesPremiers.length != nbPremiers;
+            for (int i = 0; i < nbPremiers && !termine; i++) {
+                int v = imagesPremiers[i];
+                if ((utilises[v >>> 6] & 1L << v) != 0 || parents[i] >= 0 && !hote.sontVoisins(images[parents[i]], v)) {
+                    termine = true;
+                    break;
+                }
+                for (int j : voisinsPlaces[i]) {
+                    if (!hote.sontVoisins(images[j], v)) {
+                        termine = true;
+                        break;
+                    }
+                }
+                images[i] = v;
+                utilises[v >>> 6] |= 1L << v;
+            }
+            profondeur = nbPremiers;
+            base = nbPremiers;
+        }
+
+        /**
+         * Cherche le plongement suivant.
+         *
+         * @return false s'il n'y en a plus
+         */
+        boolean avancer() {
+            int k = ordre.length;
+            if (termine)
+                return false;
+            if (k == base) {
+                // Le motif vide (ou entièrement imposé) a exactement un plongement
+                termine = !debut;
+                debut = false;
+                return !termine;
+            }
+            if (debut) {
+                debut = false;
+                initialiser(profondeur);
+            } else {
+                liberer(--profondeur);
+            }
+            while (true) {
+                int v = candidatSuivant(profondeur);
+                if (v >= 0) {
+                    images[profondeur] = v;
+                    utilises[v >>> 6] |= 1L << v;
+                    if (++profondeur == k)
+                        return true;
+                    initialiser(profondeur);
+                } else if (profondeur == base) {
+                    termine = true;
+                    return false;
+                } else {
+                    liberer(--profondeur);
+                }
+            }
+        }
+
+        int[] getPlongement() {
+            int[] plongement = new int[ordre.length];
+            for (int i = 0; i < ordre.length; i++)
+                plongement[ordre[i]] = images[i];
+            return plongement;
+        }
+
+        private void initialiser(int i) {
+            if (parents[i] >= 0) {
+                int image = images[parents[i]];
+                curseurs[i] = hote.getGraphe().debutVoisins(image);
+                fins[i] = hote.getGraphe().finVoisins(image);
+            } else {
+                curseurs[i] = 0;
+                fins[i] = hote.getNbDegreAuMoins(motif.degre(ordre[i]));
+            }
+        }
+
+        private void liberer(int i) {
+            utilises[images[i] >>> 6] &= ~(1L << images[i]);
+        }
+
+        private int candidatSuivant(int i) {
+            long[] domaine = domaines[ordre[i]];
+            while (curseurs[i] < fins[i]) {
+                int k = curseurs[i]++;
+                int v = parents[i] >= 0 ? hote.getGraphe().getVoisin(k) : hote.getParDegre(k);
+                if ((domaine[v >>> 6] & 1L << v) == 0 || (utilises[v >>> 6] & 1L << v) != 0)
+                    continue;
+                boolean compatible = true;
+                for (int j : voisinsPlaces[i]) {
+                    if (!hote.sontVoisins(images[j], v)) {
+                        compatible = false;
+                        break;
+                    }
+                }
+                if (compatible)
+                    return v;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.trains.plateau.Plateau;
+
+import java.util.Arrays;
+
+/**
+ * Recherche A* d'un plus court chemin entre deux sommets d'un {@link GrapheCompact} dont les sommets sont
+ * placés sur une grille hexagonale. L'heuristique d'un sommet {@code u} vers la cible {@code t} est
+ * {@code surcout(t) + (d(u, t) - 1) * surcoutMin}, où {@code d} est la distance hexagonale (tout chemin entre
+ * dans au moins {@code d(u, t)} sommets dont la cible) : elle est cohérente, donc les distances sont celles
+ * de Dijkstra, mais seuls les sommets qui peuvent améliorer la réponse sont explorés.
+ * <p>
+ * Si une arête du graphe relie deux sommets qui ne sont pas voisins sur la grille, l'heuristique n'est plus
+ * admissible et la recherche se comporte comme l'algorithme de Dijkstra (heuristique nulle).
+ * Les tableaux de travail sont réutilisés d'une requête à l'autre et ne sont réinitialisés que pour les sommets
+ * visités.
+ */
+public class RechercheAEtoile {
+    private final GrapheCompact graphe;
+    /**
+     * Coordonnées axiales de chaque sommet sur la grille.
+     */
+    private final int[] q;
+    private final int[] r;
+    private final boolean heuristiqueActive;
+    private int surcoutMin;
+    private final int[] distances;
+    /**
+     * Numéro de la dernière requête qui a visité chaque sommet ({@code distances} n'est valable que pour
+     * les sommets visités par la requête courante).
+     */
+    private final int[] visites;
+    private int requete;
+    private final TasBinaireIndexe tas;
+    private int nbSommetsExplores;
+
+    /**
+     * @param lignes   la ligne de chaque sommet (les lignes impaires sont décalées d'une demi-case vers la droite)
+     * @param colonnes la colonne de chaque sommet dans sa ligne
+     */
+    public RechercheAEtoile(GrapheCompact graphe, int[] lignes, int[] colonnes) {
+        this.graphe = graphe;
+        int n = graphe.getNbSommets();
+        q = new int[n];
+        r = new int[n];
+        surcoutMin = Integer.MAX_VALUE;
+        for (int u = 0; u < n; u++) {
+            r[u] = lignes[u];
+            q[u] = colonnes[u] - (lignes[u] - (lignes[u] & 1)) / 2;
+            surcoutMin = Math.min(surcoutMin, graphe.getSurcout(u));
+        }
+        boolean grille = true;
+        for (int u = 0; u < n && grille; u++)
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u) && grille; k++)
+                grille = distanceHexagonale(u, graphe.getVoisin(k)) == 1;
+        heuristiqueActive = grille;
+        distances = new int[n];
+        visites = new int[n];
+        tas = new TasBinaireIndexe(n);
+    }
+
+    /**
+     * @return une recherche dont les coordonnées sont celles des tuiles du plateau ({@link Plateau#getLigne}
+     * et {@link Plateau#getColonne} appliqués à l'indice de chaque sommet)
+     */
+    public static RechercheAEtoile depuisPlateau(GrapheCompact graphe) {
+        int n = graphe.getNbSommets();
+        int[] lignes = new int[n];
+        int[] colonnes = new int[n];
+        for (int u = 0; u < n; u++) {
+            lignes[u] = Plateau.getLigne(graphe.getIndice(u));
+            colonnes[u] = Plateau.getColonne(graphe.getIndice(u));
+        }
+        return new RechercheAEtoile(graphe, lignes, colonnes);
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return false si le graphe ne respecte pas la grille et que l'heuristique est désactivée
+     */
+    public boolean estHeuristiqueActive() {
+        return heuristiqueActive;
+    }
+
+    /**
+     * @return le nombre de sommets sortis de la file lors de la dernière requête
+     */
+    public int getNbSommetsExplores() {
+        return nbSommetsExplores;
+    }
+
+    public int distanceHexagonale(int u, int v) {
+        int dq = q[u] - q[v], dr = r[u] - r[v];
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+    }
+
+    private int heuristique(int u, int cible) {
+        if (!heuristiqueActive || u == cible)
+            return 0;
+        return graphe.getSurcout(cible) + (distanceHexagonale(u, cible) - 1) * surcoutMin;
+    }
+
+    /**
+     * Prend en compte la modification du surcout de {@code u} dans le graphe compact
+     * (un surcout plus petit que le minimum rendrait l'heuristique non admissible).
+     */
+    void surcoutModifie(int u) {
+        surcoutMin = Math.min(surcoutMin, graphe.getSurcout(u));
+    }
+
+    /**
+     * @return la distance de {@code source} à {@code cible} ({@link Dijkstra#INFINI} si {@code cible} n'est pas atteignable)
+     */
+    public int calculer(int source, int cible) {
+        if (++requete == 0) {
+            Arrays.fill(visites, 0);
+            requete = 1;
+        }
+        nbSommetsExplores = 0;
+        tas.vider();
+        visites[source] = requete;
+        distances[source] = 0;
+        tas.insererOuDiminuer(source, heuristique(source, cible));
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            nbSommetsExplores++;
+            if (u == cible) {
+                tas.vider();
+                return distances[u];
+            }
+            int du = distances[u];
+            for (int k = graphe.debutVoisins(u); k < graphe.finVoisins(u); k++) {
+                int v = graphe.getVoisin(k);
+                int dv = du + graphe.getSurcout(v);
+                if (visites[v] != requete || dv < distances[v]) {
+                    visites[v] = requete;
+                    distances[v] = dv;
+                    tas.insererOuDiminuer(v, dv + heuristique(v, cible));
+                }
+            }
+        }
+        return Dijkstra.INFINI;
+    }
+}
@@ -0,0 +1,244 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Recherche d'un lot de motifs (triangles, étoiles, chaînes, cycles...) dans un même graphe hôte.
+ * <p>
+ * L'hôte n'est indexé qu'une seule fois ({@link HoteIndexe}) pour tous les motifs. Les motifs sont d'abord rangés
+ * par signature (nombre de sommets, nombre d'arêtes et degrés triés) : seuls les motifs de même signature sont
+ * comparés, et les motifs isomorphes entre eux ne sont cherchés qu'une fois.
+ * <p>
+ * Les sous-structures communes ne sont cherchées qu'une fois : chaque motif distinct reçoit pour parent le plus
+ * grand autre motif du lot qu'il contient, et ses plongements sont obtenus en prolongeant ceux de son parent
+ * (voir {@link Plongements#parcourirProlongements}) au lieu de rechercher à nouveau les sommets du parent.
+ * Un motif dont le parent est absent de l'hôte est donc absent sans aucune recherche. Les motifs sont traités
+ * par niveaux (un motif après son parent), en parallèle à l'intérieur de chaque niveau ; les plongements d'un
+ * parent ne sont conservés que jusqu'à la fin du niveau de ses enfants, et seulement s'ils tiennent
+ * en {@value #TAILLE_MAX_PLONGEMENTS} entiers (sinon ses enfants sont cherchés directement).
+ */
+public class RechercheMotifs {
+    public static final int TAILLE_MAX_PLONGEMENTS = 1 << 22;
+
+    /**
+     * Résultat de la recherche d'un motif.
+     *
+     * @param motif            le motif cherché
+     * @param nbPlongements    le nombre de plongements du motif dans l'hôte (voir {@link Plongements})
+     * @param nbAutomorphismes le nombre de plongements du motif dans lui-même (0 s'il est absent de l'hôte,
+     *                         car on ne le calcule alors pas)
+     */
+    public record Resultat(Graphe motif, long nbPlongements, long nbAutomorphismes) {
+        public boolean estPresent() {
+            return nbPlongements > 0;
+        }
+
+        /**
+         * @return le nombre de sous-graphes de l'hôte isomorphes au motif (les plongements qui ne diffèrent que
+         * par un automorphisme du motif donnent le même sous-graphe)
+         */
+        public long getNbOccurrences() {
+            return nbPlongements == 0 ? 0 : nbPlongements / nbAutomorphismes;
+        }
+    }
+
+    private final HoteIndexe hote;
+
+    public RechercheMotifs(Graphe hote) {
+        this(hote.getHoteIndexe());
+    }
+
+    public RechercheMotifs(HoteIndexe hote) {
+        this.hote = hote;
+    }
+
+    public HoteIndexe getHote() {
+        return hote;
+    }
+
+    /**
+     * Cherche tous les motifs dans le pool commun.
+     *
+     * @return le résultat de chaque motif, dans l'ordre de la liste donnée
+     */
+    public List<Resultat> rechercher(List<Graphe> motifs) {
+        return rechercher(motifs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cherche tous les motifs, en parallèle dans {@code pool}.
+     *
+     * @return le résultat de chaque motif, dans l'ordre de la liste donnée
+     */
+    public List<Resultat> rechercher(List<Graphe> motifs, ForkJoinPool pool) {
+        int p = motifs.size();
+        GrapheCompact[] compacts = new GrapheCompact[p];
+        for (int i = 0; i < p; i++)
+            compacts[i] = motifs.get(i).getGrapheCompact();
+
+        // Regroupement des motifs isomorphes, comparés seulement à l'intérieur d'une même signature ;
+        // chaque motif est représenté par le premier qui lui est isomorphe, seul à être indexé
+        Map<List<Integer>, List<Integer>> groupes = new LinkedHashMap<>();
+        for (int i = 0; i < p; i++)
+            groupes.computeIfAbsent(signature(compacts[i]), cle -> new ArrayList<>()).add(i);
+        List<List<Integer>> listeGroupes = new ArrayList<>(groupes.values());
+        int[] premiers = new int[p];
+        HoteIndexe[] index = new HoteIndexe[p];
+        pool.submit(() -> listeGroupes.parallelStream().forEach(groupe -> {
+            List<Integer> representants = new ArrayList<>();
+            for (int i : groupe) {
+                premiers[i] = -1;
+                for (int r : representants) {
+                    // Même nombre de sommets et d'arêtes : un plongement est un isomorphisme
+                    if (new Plongements(compacts[i], index[r]).existe()) {
+                        premiers[i] = r;
+                        break;
+                    }
+                }
+                if (premiers[i] < 0) {
+                    premiers[i] = i;
+                    index[i] = new HoteIndexe(compacts[i]);
+                    representants.add(i);
+                }
+            }
+        })).join();
+        // Motifs distincts par nombre d'arêtes puis de sommets croissants : un parent est placé avant ses enfants
+        List<Integer> distincts = new ArrayList<>();
+        for (int i = 0; i < p; i++)
+            if (premiers[i] == i)
+                distincts.add(i);
+        distincts.sort(Comparator.<Integer>comparingInt(i -> compacts[i].getNbAretes())
+                .thenComparingInt(i -> compacts[i].getNbSommets()));
+        int d = distincts.size();
+        int[] numeros = new int[p];
+        for (int b = 0; b < d; b++)
+            numeros[distincts.get(b)] = b;
+
+        // Parent de chaque motif distinct : le plus grand motif placé avant lui qu'il contient,
+        // avec l'image de chaque sommet du parent dans le motif
+        int[] parents = new int[d];
+        int[][] inclusions = new int[d][];
+        pool.submit(() -> IntStream.range(0, d).parallel().forEach(b -> {
+            parents[b] = -1;
+            GrapheCompact grand = compacts[distincts.get(b)];
+            for (int a = b - 1; a >= 0; a--) {
+                GrapheCompact petit = compacts[distincts.get(a)];
+                if (petit.getNbSommets() == 0 || petit.getNbSommets() > grand.getNbSommets()
+                        || petit.getNbAretes() == grand.getNbAretes() && petit.getNbSommets() == grand.getNbSommets())
+                    continue;
+                int[] inclusion = new Plongements(petit, index[distincts.get(b)]).getPremier();
+                if (inclusion != null) {
+                    parents[b] = a;
+                    inclusions[b] = inclusion;
+                    return;
+                }
+            }
+        })).join();
+        int[] niveaux = new int[d];
+        boolean[] aDesEnfants = new boolean[d];
+        int niveauMax = 0;
+        for (int b = 0; b < d; b++) {
+            if (parents[b] >= 0) {
+                niveaux[b] = niveaux[parents[b]] + 1;
+                aDesEnfants[parents[b]] = true;
+            }
+            niveauMax = Math.max(niveauMax, niveaux[b]);
+        }
+
+        long[] nbPlongements = new long[d];
+        long[] nbAutomorphismes = new long[d];
+        int[][] plongements = new int[d][];
+        for (int niveau = 0; niveau <= niveauMax; niveau++) {
+            int n = niveau;
+            pool.submit(() -> IntStream.range(0, d).filter(b -> niveaux[b] == n).parallel().forEach(b -> {
+                GrapheCompact motif = compacts[distincts.get(b)];
+                Liste liste = aDesEnfants[b] ? new Liste() : null;
+                int a = parents[b];
+                if (a >= 0 && nbPlongements[a] == 0) {
+                    nbPlongements[b] = 0;
+                } else if (a >= 0 && plongements[a] != null) {
+                    Plongements recherche = new Plongements(motif, hote, inclusions[b]);
+                    int k = inclusions[b].length;
+                    int[] images = new int[k];
+                    for (int debut = 0; debut < plongements[a].length; debut += k) {
+                        System.arraycopy(plongements[a], debut, images, 0, k);
+                        nbPlongements[b] += recherche.parcourirProlongements(images, liste);
+                    }
+                } else {
+                    nbPlongements[b] = new Plongements(motif, hote).parcourirProlongements(new int[0], liste);
+                }
+                if (liste != null)
+                    plongements[b] = liste.getValeurs();
+                if (nbPlongements[b] > 0)
+                    nbAutomorphismes[b] = new Plongements(motif, index[distincts.get(b)]).compter();
+            })).join();
+            // Les enfants des motifs du niveau précédent sont tous traités
+            for (int b = 0; b < d; b++)
+                if (niveaux[b] == niveau - 1)
+                    plongements[b] = null;
+        }
+
+        List<Resultat> resultats = new ArrayList<>(p);
+        for (int i = 0; i < p; i++) {
+            int b = numeros[premiers[i]];
+            resultats.add(new Resultat(motifs.get(i), nbPlongements[b], nbAutomorphismes[b]));
+        }
+        return resultats;
+    }
+
+    /**
+     * Plongements d'un motif mis bout à bout, abandonnés s'ils dépassent {@value #TAILLE_MAX_PLONGEMENTS} entiers.
+     */
+    private static class Liste implements Consumer<int[]> {
+        private int[] valeurs = new int[16];
+        private int taille;
+        private boolean abandonnee;
+
+        @Override
+        public void accept(int[] plongement) {
+            if (abandonnee)
+                return;
+            if (taille + plongement.length > TAILLE_MAX_PLONGEMENTS) {
+                abandonnee = true;
+                valeurs = null;
+                return;
+            }
+            if (taille + plongement.length > valeurs.length)
+                valeurs = Arrays.copyOf(valeurs, Math.max(2 * valeurs.length, taille + plongement.length));
+            System.arraycopy(plongement, 0, valeurs, taille, plongement.length);
+            taille += plongement.length;
+        }
+
+        /**
+         * @return les plongements mis bout à bout, ou null s'ils ont été abandonnés
+         */
+        int[] getValeurs() {
+            return abandonnee ? null : Arrays.copyOf(valeurs, taille);
+        }
+    }
+
+    /**
+     * @return le nombre de sommets, le nombre d'arêtes et la suite triée des degrés du graphe : deux graphes
+     * isomorphes ont la même signature
+     */
+    private static List<Integer> signature(GrapheCompact c) {
+        int[] degres = new int[c.getNbSommets()];
+        for (int u = 0; u < degres.length; u++)
+            degres[u] = c.degre(u);
+        Arrays.sort(degres);
+        List<Integer> signature = new ArrayList<>(degres.length + 2);
+        signature.add(c.getNbSommets());
+        signature.add(c.getNbAretes());
+        for (int degre : degres)
+            signature.add(degre);
+        return signature;
+    }
+}
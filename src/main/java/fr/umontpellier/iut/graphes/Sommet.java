@@ -4,8 +4,11 @@ import fr.umontpellier.iut.trains.Jeu;
 import fr.umontpellier.iut.trains.Joueur;
 import fr.umontpellier.iut.trains.plateau.Tuile;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -22,7 +25,7 @@ public class Sommet implements Comparator<Sommet> {
     /**
      * Coût de pose d'un rail sur la tuile correspondante.
      */
-    private final int surcout;
+    private int surcout;
     /**
      * Nombre de points de victoire que rapporte la tuile si un joueur a un rail dessus
      */
@@ -35,6 +38,12 @@ public class Sommet implements Comparator<Sommet> {
      * Ensemble des sommets voisins.
      */
     private Set<Sommet> voisins;
+    /**
+     * Compteurs de modifications des graphes qui contiennent le sommet, incrémentés à chaque modification
+     * des voisins, du surcout ou des joueurs (null tant que le sommet n'est dans aucun graphe). Les références sont faibles
+     * pour qu'un graphe abandonné ne soit pas retenu par ses sommets.
+     */
+    private List<WeakReference<CompteurModifications>> compteurs;
 
     /**
      * Constructeur privé pour forcer l'utilisation du builder.
@@ -49,7 +58,7 @@ public class Sommet implements Comparator<Sommet> {
 
 
     public Sommet(Tuile tuile, Jeu jeu) {
-        this.i = jeu.getTuiles().indexOf(tuile);
+        this.i = jeu.getIndiceTuile(tuile);
         this.surcout = tuile.getSurcout();
         this.joueurs = jeu.getJoueurs().stream().filter(tuile::hasRail).map(joueur -> jeu.getJoueurs().indexOf(joueur)).collect(Collectors.toSet());
         this.nbPointsVictoire = tuile.getNbPointsVictoire();
@@ -73,7 +82,13 @@ public class Sommet implements Comparator<Sommet> {
     }
 
     public void ajouterJoueur(Joueur joueur) {
-        joueurs.add(joueur.getJeu().getJoueurs().indexOf(joueur));
+        if (joueurs.add(joueur.getJeu().getJoueurs().indexOf(joueur)) && compteurs != null) {
+            for (WeakReference<CompteurModifications> reference : compteurs) {
+                CompteurModifications compteur = reference.get();
+                if (compteur != null)
+                    compteur.incrementerJoueurs();
+            }
+        }
     }
 
     public Set<Integer> getJoueurs() {
@@ -92,20 +107,61 @@ public class Sommet implements Comparator<Sommet> {
         return surcout;
     }
 
+    /**
+     * Modifie le coût de pose (à faire à travers {@link Graphe#modifierSurcout} pour que le graphe soit prévenu)
+     */
+    void setSurcout(int surcout) {
+        this.surcout = surcout;
+        signalerModification();
+    }
+
     public Set<Sommet> getVoisins() {
         return voisins;
     }
 
     public void ajouterVoisin(Sommet voisin) {
-        if(voisin != null && voisin != this)
-            voisins.add(voisin);
+        if(voisin != null && voisin != this && voisins.add(voisin))
+            signalerModification();
     }
 
     /**
      * Supprime le sommet voisin du sommet courant
      * @param s un sommet à retirer des voisins de this
      */
-    public void supprimerVoisin(Sommet s){ voisins.remove(s); }
+    public void supprimerVoisin(Sommet s){
+        if(voisins.remove(s))
+            signalerModification();
+    }
+
+    /**
+     * Inscrit le compteur de modifications d'un graphe qui contient le sommet.
+     */
+    void ajouterCompteur(CompteurModifications compteur) {
+        if (compteurs == null)
+            compteurs = new ArrayList<>(1);
+        compteurs.removeIf(reference -> reference.get() == null);
+        compteurs.add(new WeakReference<>(compteur));
+    }
+
+    /**
+     * Désinscrit le compteur d'un graphe dont le sommet a été retiré.
+     */
+    void retirerCompteur(CompteurModifications compteur) {
+        if (compteurs != null)
+            compteurs.removeIf(reference -> reference.get() == null || reference.get() == compteur);
+    }
+
+    private void signalerModification() {
+        if (compteurs == null)
+            return;
+        for (int k = compteurs.size() - 1; k >= 0; k--) {
+            CompteurModifications compteur = compteurs.get(k).get();
+            if (compteur == null)
+                compteurs.remove(k);
+            else
+                compteur.incrementer();
+        }
+    }
 
     public boolean estVoisin(Sommet sommet) {
         return voisins.contains(sommet);
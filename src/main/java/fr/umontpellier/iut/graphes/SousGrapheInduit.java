@@ -0,0 +1,234 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Sous-graphe induit d'un graphe, vu à travers un masque de bits sur les identifiants de la représentation
+ * compacte du graphe parent : la construction ne copie ni les sommets ni leurs voisins et n'alloue que
+ * n / 64 mots. Le nombre de sommets, l'appartenance d'un sommet et les degrés sont lus directement sur le
+ * parent ; les autres requêtes de {@link Graphe} utilisent une représentation compacte du sous-graphe,
+ * construite en O(n + m) entiers à la première requête qui en a besoin.
+ * <p>
+ * La vue ne peut pas être modifiée (les méthodes de modification lèvent {@link UnsupportedOperationException}).
+ * Elle suit les modifications du parent : le filtre est réévalué sur tous les sommets du parent, en O(n),
+ * à la première requête qui suit un changement de ses sommets, de ses arêtes, de ses surcouts ou des joueurs
+ * de ses sommets. Un sommet qui entre dans le filtre (par exemple une tuile où le joueur vient de poser un rail)
+ * apparaît donc dans la vue, et un sommet supprimé du parent en disparaît.
+ */
+public class SousGrapheInduit extends Graphe {
+    private final Graphe parent;
+    private final Predicate<Sommet> filtre;
+    /**
+     * Représentation compacte du parent sur laquelle porte le masque, et compteurs de modifications du parent
+     * au moment où le filtre a été évalué.
+     */
+    private GrapheCompact base;
+    private int nbModificationsFiltre;
+    private int nbModificationsJoueursFiltre;
+    private long[] masque;
+    private int nbSommets;
+    /**
+     * Représentation compacte du sous-graphe (null si pas encore construite pour la base actuelle),
+     * et nombre de modifications du parent au moment de sa construction.
+     */
+    private GrapheCompact induit;
+    private int nbModificationsInduit;
+
+    /**
+     * @param parent le graphe dont on prend le sous-graphe
+     * @param X      les sommets à considérer (ceux qui ne sont pas dans {@code parent} sont ignorés) ;
+     *               l'ensemble n'est pas copié
+     */
+    public SousGrapheInduit(Graphe parent, Set<Sommet> X) {
+        this(parent, X::contains);
+    }
+
+    /**
+     * @param parent le graphe dont on prend le sous-graphe
+     * @param filtre les sommets du parent à considérer, réévalué quand le parent change
+     */
+    public SousGrapheInduit(Graphe parent, Predicate<Sommet> filtre) {
+        this.parent = parent;
+        this.filtre = filtre;
+        filtrer(parent.getGrapheCompact());
+    }
+
+    /**
+     * Réévalue le filtre sur la représentation compacte actuelle du parent si celui-ci a changé (en O(1) sinon).
+     */
+    private GrapheCompact actualiser() {
+        GrapheCompact c = parent.getGrapheCompact();
+        if (c != base || nbModificationsFiltre != parent.getNbModifications()
+                || nbModificationsJoueursFiltre != parent.getNbModificationsJoueurs())
+            filtrer(c);
+        return c;
+    }
+
+    private void filtrer(GrapheCompact c) {
+        long[] nouveau = new long[(c.getNbSommets() + 63) >>> 6];
+        int nb = 0;
+        for (int u = 0; u < c.getNbSommets(); u++) {
+            if (filtre.test(c.getSommet(u))) {
+                nouveau[u >>> 6] |= 1L << u;
+                nb++;
+            }
+        }
+        base = c;
+        masque = nouveau;
+        nbSommets = nb;
+        nbModificationsFiltre = parent.getNbModifications();
+        nbModificationsJoueursFiltre = parent.getNbModificationsJoueurs();
+        induit = null;
+    }
+
+    private boolean contientId(int u) {
+        return u >= 0 && (masque[u >>> 6] & 1L << u) != 0;
+    }
+
+    /**
+     * @return le graphe dont this est un sous-graphe
+     */
+    public Graphe getParent() {
+        return parent;
+    }
+
+    /**
+     * @return la représentation compacte du sous-graphe, reconstruite seulement si le parent a changé
+     * (structure ou surcouts), ce qui se vérifie en O(1) sur le nombre de modifications du parent
+     */
+    @Override
+    public GrapheCompact getGrapheCompact() {
+        GrapheCompact c = actualiser();
+        if (induit == null || nbModificationsInduit != parent.getNbModifications()) {
+            induit = c.induit(masque);
+            nbModificationsInduit = parent.getNbModifications();
+        }
+        return induit;
+    }
+
+    /**
+     * @return le nombre de modifications du parent, la vue ne pouvant pas être modifiée elle-même
+     */
+    @Override
+    int getNbModifications() {
+        return parent.getNbModifications();
+    }
+
+    @Override
+    int getNbModificationsJoueurs() {
+        return parent.getNbModificationsJoueurs();
+    }
+
+    @Override
+    public int getNbSommets() {
+        actualiser();
+        return nbSommets;
+    }
+
+    @Override
+    public Sommet getSommet(int i) {
+        GrapheCompact c = actualiser();
+        int u = c.getId(i);
+        return contientId(u) ? c.getSommet(u) : null;
+    }
+
+    /**
+     * @return l'ensemble des sommets du sous-graphe, lu directement dans le masque (non modifiable)
+     */
+    @Override
+    public Set<Sommet> getSommets() {
+        return new AbstractSet<>() {
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Sommet s && contientId(actualiser().getId(s));
+            }
+
+            @Override
+            public int size() {
+                return getNbSommets();
+            }
+
+            @Override
+            public Iterator<Sommet> iterator() {
+                GrapheCompact c = actualiser();
+                long[] bits = masque;
+                return new Iterator<>() {
+                    private int mot = -1;
+                    private long restants;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (restants == 0 && mot + 1 < bits.length)
+                            restants = bits[++mot];
+                        return restants != 0;
+                    }
+
+                    @Override
+                    public Sommet next() {
+                        if (!hasNext())
+                            throw new NoSuchElementException();
+                        int u = mot << 6 | Long.numberOfTrailingZeros(restants);
+                        restants &= restants - 1;
+                        return c.getSommet(u);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @return le nombre de voisins de {@code s} qui sont dans le sous-graphe (0 si {@code s} n'y est pas)
+     */
+    @Override
+    public int degre(Sommet s) {
+        GrapheCompact c = actualiser();
+        int u = c.getId(s);
+        if (!contientId(u))
+            return 0;
+        int degre = 0;
+        for (int k = c.debutVoisins(u); k < c.finVoisins(u); k++)
+            if (contientId(c.getVoisin(k)))
+                degre++;
+        return degre;
+    }
+
+    private static UnsupportedOperationException nonModifiable() {
+        return new UnsupportedOperationException("Un sous-graphe induit ne peut pas être modifié");
+    }
+
+    @Override
+    public boolean ajouterSommet(int i) {
+        throw nonModifiable();
+    }
+
+    @Override
+    public boolean ajouterSommet(Sommet s) {
+        throw nonModifiable();
+    }
+
+    @Override
+    public boolean supprimerSommet(Sommet s) {
+        throw nonModifiable();
+    }
+
+    @Override
+    public void ajouterArete(Sommet s, Sommet t) {
+        throw nonModifiable();
+    }
+
+    @Override
+    public void supprimerArete(Sommet s, Sommet t) {
+        throw nonModifiable();
+    }
+
+    @Override
+    public void modifierSurcout(Sommet s, int surcout) {
+        throw nonModifiable();
+    }
+
+    @Override
+    public void activerConnexiteDynamique() {
+        throw nonModifiable();
+    }
+}
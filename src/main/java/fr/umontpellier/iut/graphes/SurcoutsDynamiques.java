@@ -0,0 +1,159 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.trains.Jeu;
+import fr.umontpellier.iut.trains.Joueur;
+import fr.umontpellier.iut.trains.cartes.EffetTour;
+import fr.umontpellier.iut.trains.plateau.Tuile;
+
+/**
+ * Surcouts des sommets lus directement sur les tuiles du jeu, éventuellement du point de vue d'un joueur
+ * (avec {@link Tuile#getSurcout(Joueur)}, qui tient compte des effets comme VIADUC, VOIE_SOUTERRAINE ou COOPERATION).
+ * <p>
+ * Chaque tuile a un numéro de version qui change quand on y pose un rail ou une gare : {@link #actualiser}
+ * ne relit que les tuiles dont la version a changé (ou toutes si les effets du joueur ont changé), et
+ * le cache des distances n'est mis à jour que pour les surcouts qui ont effectivement changé.
+ * Le graphe pondéré partage les sommets et les arêtes de la représentation compacte d'origine sans les copier ;
+ * il ne suit pas les ajouts ou suppressions de sommets et d'arêtes.
+ */
+public class SurcoutsDynamiques {
+    private final Joueur joueur;
+    private final GrapheCompact structure;
+    private final Tuile[] tuiles;
+    private final int[] surcouts;
+    /**
+     * Version de chaque tuile lors de la dernière lecture de son surcout.
+     */
+    private final int[] versions;
+    /**
+     * Effets du joueur lors de la dernière actualisation (un bit par {@link EffetTour}).
+     */
+    private long effets;
+    private final GrapheCompact graphe;
+    private CacheDistances cacheDistances;
+    private int version;
+
+    /**
+     * @param structure la représentation compacte du graphe du jeu (les indices sont les numéros des tuiles)
+     * @param joueur    le joueur dont on prend les effets en compte, ou null pour les surcouts de base
+     */
+    public SurcoutsDynamiques(Jeu jeu, GrapheCompact structure, Joueur joueur) {
+        this.joueur = joueur;
+        this.structure = structure;
+        int n = structure.getNbSommets();
+        tuiles = new Tuile[n];
+        surcouts = new int[n];
+        versions = new int[n];
+        for (int u = 0; u < n; u++) {
+            tuiles[u] = jeu.getTuile(structure.getIndice(u));
+            versions[u] = tuiles[u].getVersion();
+            surcouts[u] = lireSurcout(tuiles[u]);
+        }
+        effets = lireEffets();
+        graphe = structure.avecSurcouts(surcouts);
+    }
+
+    private int lireSurcout(Tuile tuile) {
+        return joueur == null ? tuile.getSurcout() : tuile.getSurcout(joueur);
+    }
+
+    private long lireEffets() {
+        long masque = 0;
+        if (joueur != null)
+            for (EffetTour effet : EffetTour.values())
+                if (joueur.hasEffet(effet))
+                    masque |= 1L << effet.ordinal();
+        return masque;
+    }
+
+    /**
+     * Relit les surcouts des tuiles qui ont pu changer et met à jour le cache des distances.
+     *
+     * @return le nombre de surcouts qui ont changé
+     */
+    public int actualiser() {
+        long effetsActuels = lireEffets();
+        boolean tout = effetsActuels != effets;
+        effets = effetsActuels;
+        int n = tuiles.length;
+        int[] modifies = null;
+        int[] nouveaux = null;
+        int nbModifies = 0;
+        for (int u = 0; u < n; u++) {
+            if (!tout && tuiles[u].getVersion() == versions[u])
+                continue;
+            versions[u] = tuiles[u].getVersion();
+            int surcout = lireSurcout(tuiles[u]);
+            if (surcout != surcouts[u]) {
+                if (modifies == null) {
+                    modifies = new int[n];
+                    nouveaux = new int[n];
+                }
+                modifies[nbModifies] = u;
+                nouveaux[nbModifies++] = surcout;
+            }
+        }
+        if (nbModifies == 0)
+            return 0;
+        version++;
+        // Beaucoup de changements (un effet qui s'applique à tout le plateau) : le cache repart de zéro
+        if (nbModifies > n / 8)
+            cacheDistances = null;
+        // Sinon le cache est réparé un surcout à la fois, chaque réparation supposant les autres à jour
+        for (int k = 0; k < nbModifies; k++) {
+            int u = modifies[k];
+            int ancien = surcouts[u];
+            surcouts[u] = nouveaux[k];
+            if (cacheDistances != null)
+                cacheDistances.surcoutModifie(u, ancien);
+        }
+        return nbModifies;
+    }
+
+    /**
+     * @return la représentation compacte d'origine dont le graphe pondéré partage la structure
+     */
+    public GrapheCompact getStructure() {
+        return structure;
+    }
+
+    /**
+     * @return un numéro qui change à chaque fois qu'un surcout change
+     */
+    public int getVersion() {
+        actualiser();
+        return version;
+    }
+
+    /**
+     * @return le graphe pondéré par les surcouts actuels
+     */
+    public GrapheCompact getGraphe() {
+        actualiser();
+        return graphe;
+    }
+
+    public int getSurcout(int u) {
+        actualiser();
+        return surcouts[u];
+    }
+
+    /**
+     * @return le cache des distances pour les surcouts actuels
+     */
+    public CacheDistances getCacheDistances() {
+        actualiser();
+        if (cacheDistances == null)
+            cacheDistances = new CacheDistances(graphe);
+        return cacheDistances;
+    }
+
+    /**
+     * @return la distance de {@code s} à {@code t} avec les surcouts actuels
+     */
+    public int getDistance(Sommet s, Sommet t) {
+        int u = graphe.getId(s), v = graphe.getId(t);
+        if (u < 0 || v < 0)
+            return Dijkstra.INFINI;
+        return getCacheDistances().getDistance(u, v);
+    }
+}
@@ -0,0 +1,125 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Tas binaire minimum indexé sur les entiers 0..n-1, avec des clés entières.
+ * Chaque élément est présent au plus une fois, ce qui permet de diminuer sa clé en O(log n)
+ * au lieu de l'insérer une deuxième fois. À clés égales, le plus petit élément sort en premier.
+ */
+public class TasBinaireIndexe {
+    private final int[] tas;
+    /**
+     * Position de chaque élément dans {@code tas}, -1 s'il n'est pas dans le tas.
+     */
+    private final int[] positions;
+    private final int[] cles;
+    private int taille;
+
+    public TasBinaireIndexe(int n) {
+        tas = new int[n];
+        positions = new int[n];
+        cles = new int[n];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean estVide() {
+        return taille == 0;
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public boolean contient(int x) {
+        return positions[x] >= 0;
+    }
+
+    /**
+     * @return la clé de {@code x}, qui doit être dans le tas
+     */
+    public int getCle(int x) {
+        return cles[x];
+    }
+
+    /**
+     * Ajoute {@code x} avec la clé {@code cle}, ou diminue sa clé s'il est déjà présent avec une clé plus grande.
+     *
+     * @return true si le tas a été modifié
+     */
+    public boolean insererOuDiminuer(int x, int cle) {
+        if (positions[x] < 0) {
+            cles[x] = cle;
+            positions[x] = taille;
+            tas[taille++] = x;
+            remonter(positions[x]);
+            return true;
+        }
+        if (cle < cles[x]) {
+            cles[x] = cle;
+            remonter(positions[x]);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retire et renvoie l'élément de plus petite clé (pré-requis : le tas n'est pas vide).
+     */
+    public int extraireMin() {
+        int min = tas[0];
+        positions[min] = -1;
+        taille--;
+        if (taille > 0) {
+            tas[0] = tas[taille];
+            positions[tas[0]] = 0;
+            descendre(0);
+        }
+        return min;
+    }
+
+    /**
+     * Vide le tas en O(taille).
+     */
+    public void vider() {
+        for (int k = 0; k < taille; k++)
+            positions[tas[k]] = -1;
+        taille = 0;
+    }
+
+    private boolean avant(int x, int y) {
+        return cles[x] < cles[y] || cles[x] == cles[y] && x < y;
+    }
+
+    private void remonter(int p) {
+        int x = tas[p];
+        while (p > 0) {
+            int parent = (p - 1) >>> 1;
+            if (!avant(x, tas[parent]))
+                break;
+            tas[p] = tas[parent];
+            positions[tas[p]] = p;
+            p = parent;
+        }
+        tas[p] = x;
+        positions[x] = p;
+    }
+
+    private void descendre(int p) {
+        int x = tas[p];
+        while (true) {
+            int fils = 2 * p + 1;
+            if (fils >= taille)
+                break;
+            if (fils + 1 < taille && avant(tas[fils + 1], tas[fils]))
+                fils++;
+            if (!avant(tas[fils], x))
+                break;
+            tas[p] = tas[fils];
+            positions[tas[p]] = p;
+            p = fils;
+        }
+        tas[p] = x;
+        positions[x] = p;
+    }
+}
@@ -0,0 +1,77 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Structure d'ensembles disjoints (union-find) sur les entiers 0..n-1,
+ * avec compression de chemin et union par rang.
+ * Toutes les opérations sont en temps quasi constant amorti.
+ */
+public class UnionFind {
+    private final int[] parents;
+    private final byte[] rangs;
+    private int nbClasses;
+
+    /**
+     * Construit n singletons {0}, {1}, ..., {n-1}
+     */
+    public UnionFind(int n) {
+        parents = new int[n];
+        rangs = new byte[n];
+        for (int x = 0; x < n; x++)
+            parents[x] = x;
+        nbClasses = n;
+    }
+
+    /**
+     * @return le représentant de la classe de {@code x}
+     */
+    public int trouver(int x) {
+        int racine = x;
+        while (parents[racine] != racine)
+            racine = parents[racine];
+        while (parents[x] != racine) {
+            int suivant = parents[x];
+            parents[x] = racine;
+            x = suivant;
+        }
+        return racine;
+    }
+
+    /**
+     * Réunit les classes de {@code x} et {@code y}.
+     *
+     * @return true si les deux éléments étaient dans des classes différentes
+     */
+    public boolean unir(int x, int y) {
+        int rx = trouver(x), ry = trouver(y);
+        if (rx == ry)
+            return false;
+        if (rangs[rx] < rangs[ry]) {
+            int tmp = rx;
+            rx = ry;
+            ry = tmp;
+        }
+        parents[ry] = rx;
+        if (rangs[rx] == rangs[ry])
+            rangs[rx]++;
+        nbClasses--;
+        return true;
+    }
+
+    public boolean memeClasse(int x, int y) {
+        return trouver(x) == trouver(y);
+    }
+
+    /**
+     * @return le nombre de classes
+     */
+    public int getNbClasses() {
+        return nbClasses;
+    }
+
+    /**
+     * @return le nombre d'éléments
+     */
+    public int getTaille() {
+        return parents.length;
+    }
+}
@@ -12,8 +12,11 @@ import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
+import fr.umontpellier.iut.graphes.ConnexiteIncrementale;
 import fr.umontpellier.iut.graphes.Graphe;
 import fr.umontpellier.iut.graphes.Sommet;
+import fr.umontpellier.iut.graphes.SousGrapheInduit;
+import fr.umontpellier.iut.graphes.SurcoutsDynamiques;
 import fr.umontpellier.iut.trains.cartes.Carte;
 import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
 import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
@@ -49,6 +52,18 @@ public class Jeu implements Runnable {
      * Tuiles du plateau de jeu (indexées dans l'ordre de lecture)
      */
     private List<Tuile> tuiles;
+    /**
+     * Position de chaque tuile dans la liste {@code tuiles}
+     */
+    private Map<Tuile, Integer> indicesTuiles;
+    /**
+     * Surcouts lus sur les tuiles pour chaque joueur (clé null pour les surcouts de base), créés à la demande
+     */
+    private Map<Joueur, SurcoutsDynamiques> surcoutsDynamiques = new HashMap<>();
+    /**
+     * Classes de connexité des tuiles où chaque joueur a posé un rail, mises à jour par {@code Tuile.ajouterRail}
+     */
+    private Map<Joueur, ConnexiteIncrementale> reseaux = new HashMap<>();
     /**
      * Nombre de jetons Gare restant (non placés sur les tuiles)
      */
@@ -91,6 +106,10 @@ public class Jeu implements Runnable {
         // préparation du plateau
         this.nomVille = plateau.getNomVille();
         this.tuiles = plateau.makeTuiles();
+        this.indicesTuiles = new HashMap<>();
+        for (int i = 0; i < tuiles.size(); i++) {
+            indicesTuiles.put(tuiles.get(i), i);
+        }
 
         this.nbJetonsGare = 30;
         this.cartesEcartees = new ListeDeCartes();
@@ -124,10 +143,10 @@ public class Jeu implements Runnable {
         List<Tuile> tuilePossibles = tuiles.stream().filter(Tuile::peutEtreSommet).toList();
         tuilePossibles.forEach(tuile -> graphe.ajouterSommet(new Sommet(tuile, this)));
         tuilePossibles.forEach(tuile -> {
+            Sommet sommet = graphe.getSommet(getIndiceTuile(tuile));
             for(Tuile voisine : tuile.getVoisines()) {
-                if (tuilePossibles.contains(voisine)) {
-                    graphe.getSommet(tuiles.indexOf(tuile)).ajouterVoisin(graphe.getSommet(tuiles.indexOf(voisine)));
-                    graphe.getSommet(tuiles.indexOf(voisine)).ajouterVoisin(graphe.getSommet(tuiles.indexOf(tuile)));
+                if (voisine.peutEtreSommet()) {
+                    graphe.ajouterArete(sommet, graphe.getSommet(getIndiceTuile(voisine)));
                 }
             }
         });
@@ -141,6 +160,15 @@ public class Jeu implements Runnable {
         return joueurCourant;
     }
 
+    /**
+     * @param tuile une tuile du plateau
+     * @return la position de la tuile dans la liste des tuiles (c'est aussi l'indice
+     *         du sommet correspondant dans le graphe), ou -1 si la tuile n'est pas sur le plateau
+     */
+    public int getIndiceTuile(Tuile tuile) {
+        return indicesTuiles.getOrDefault(tuile, -1);
+    }
+
     public List<Tuile> getTuiles() {
         return tuiles;
     }
@@ -401,6 +429,7 @@ public class Jeu implements Runnable {
     public void ajouterGare(int i) {
         tuiles.get(i).ajouterGare();
         nbJetonsGare--;
+        graphe.modifierSurcout(graphe.getSommet(i), tuiles.get(i).getSurcout());
     }
 
     public Collection<String> getPositionsRailDisponibles(Joueur joueur) {
@@ -424,13 +453,84 @@ public class Jeu implements Runnable {
         return graphe;
     }
 
+    /**
+     * @return les classes de connexité des tuiles où le joueur a posé un rail (les éléments sont les indices
+     * des tuiles), construites au premier appel puis tenues à jour à chaque rail posé
+     */
+    public ConnexiteIncrementale getReseau(Joueur joueur) {
+        ConnexiteIncrementale reseau = reseaux.get(joueur);
+        if (reseau == null) {
+            reseau = new ConnexiteIncrementale(tuiles.size());
+            for (int i = 0; i < tuiles.size(); i++)
+                if (tuiles.get(i).hasRail(joueur))
+                    reseau.ajouter(i);
+            for (int i = 0; i < tuiles.size(); i++)
+                for (Tuile voisine : tuiles.get(i).getVoisines())
+                    reseau.relier(i, getIndiceTuile(voisine));
+            reseaux.put(joueur, reseau);
+        }
+        return reseau;
+    }
+
+    /**
+     * @return true si les tuiles où le joueur a posé un rail forment un réseau connexe
+     */
+    public boolean estReseauConnexe(Joueur joueur) {
+        return getReseau(joueur).estConnexe();
+    }
+
+    /**
+     * @return le nombre de morceaux du réseau du joueur
+     */
+    public int getNbComposantesReseau(Joueur joueur) {
+        return getReseau(joueur).getNbComposantes();
+    }
+
+    /**
+     * @return un représentant du morceau de réseau du joueur qui contient la tuile {@code i}
+     * (le même pour toutes les tuiles du morceau), ou -1 si le joueur n'a pas de rail sur la tuile
+     */
+    public int getComposanteReseau(Joueur joueur, int i) {
+        return getReseau(joueur).getComposante(i);
+    }
+
+    /**
+     * @return le graphe du jeu dans lequel chaque morceau du réseau du joueur est fusionné en un seul sommet
+     * (voir {@link Graphe#fusionnerPartition}), sans modifier le graphe du jeu
+     */
+    public Graphe getGrapheReseauFusionne(Joueur joueur) {
+        ConnexiteIncrementale reseau = getReseau(joueur);
+        Map<Integer, Set<Sommet>> morceaux = new HashMap<>();
+        for (Sommet sommet : graphe.getSommets()) {
+            int composante = reseau.getComposante(sommet.getIndice());
+            if (composante >= 0)
+                morceaux.computeIfAbsent(composante, k -> new HashSet<>()).add(sommet);
+        }
+        return Graphe.fusionnerPartition(graphe, morceaux.values());
+    }
+
+    /**
+     * @param joueur un joueur, ou null pour les surcouts de base
+     * @return les surcouts du graphe du jeu tels que les voit le joueur (effets de ses cartes compris),
+     * relus sur les tuiles à chaque requête et conservés d'un appel à l'autre avec leur cache de distances
+     */
+    public SurcoutsDynamiques getSurcoutsDynamiques(Joueur joueur) {
+        SurcoutsDynamiques surcouts = surcoutsDynamiques.get(joueur);
+        if (surcouts == null || surcouts.getStructure() != graphe.getGrapheCompact()) {
+            surcouts = new SurcoutsDynamiques(this, graphe.getGrapheCompact(), joueur);
+            surcoutsDynamiques.put(joueur, surcouts);
+        }
+        return surcouts;
+    }
+
     /**
      * @param joueur
      * @return le sous-graphe des tuiles du jeu sur lesquelles le joueur a posé des
-     *         rails
+     *         rails (vue non modifiable sur le graphe du jeu, qui ne copie pas les sommets et qui suit les rails
+     *         posés ensuite par le joueur)
      */
     public Graphe getGraphe(Joueur joueur) {
-        Set<Sommet> sommets = graphe.getSommets().stream().filter(sommet -> sommet.getJoueurs().contains(joueurs.indexOf(joueur))).collect(Collectors.toSet());
-        return new Graphe(graphe, sommets);
+        int indiceJoueur = joueurs.indexOf(joueur);
+        return new SousGrapheInduit(graphe, sommet -> sommet.getJoueurs().contains(indiceJoueur));
     }
 }
@@ -260,12 +260,22 @@ public enum Plateau {
     }
 
     public static String getCoordonnees(int i) {
-        int strip = i / 19;
+        return String.format("(%d, %d)", getLigne(i), getColonne(i));
+    }
+
+    /**
+     * @return la ligne de la tuile d'indice {@code i} (les lignes paires ont 10 tuiles, les lignes impaires 9
+     * et sont décalées d'une demi-tuile vers la droite)
+     */
+    public static int getLigne(int i) {
+        return 2 * (i / 19) + (i % 19 < 10 ? 0 : 1);
+    }
+
+    /**
+     * @return la colonne de la tuile d'indice {@code i} dans sa ligne
+     */
+    public static int getColonne(int i) {
         int stripIndex = i % 19;
-        if (stripIndex < 10) {
-            return String.format("(%d, %d)", 2*strip, stripIndex);
-        } else {
-            return String.format("(%d, %d)", 2*strip + 1, stripIndex - 10);
-        }
+        return stripIndex < 10 ? stripIndex : stripIndex - 10;
     }
 }
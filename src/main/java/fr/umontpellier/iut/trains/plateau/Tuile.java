@@ -2,12 +2,20 @@ package fr.umontpellier.iut.trains.plateau;
 
 import java.util.*;
 
+import fr.umontpellier.iut.graphes.ConnexiteIncrementale;
+import fr.umontpellier.iut.graphes.Graphe;
+import fr.umontpellier.iut.graphes.Sommet;
+import fr.umontpellier.iut.trains.Jeu;
 import fr.umontpellier.iut.trains.Joueur;
 import fr.umontpellier.iut.trains.cartes.EffetTour;
 
 public abstract class Tuile {
     private ArrayList<Tuile> voisines;
     private Set<Joueur> rails;
+    /**
+     * Compteur incrémenté à chaque changement qui peut modifier le surcout de la tuile (rail ou gare posé).
+     */
+    private int version;
 
     public Tuile() {
         this.voisines = new ArrayList<>();
@@ -28,9 +36,27 @@ public abstract class Tuile {
         return rails;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    protected void incrementerVersion() {
+        version++;
+    }
+
     public void ajouterRail(Joueur joueur) {
         rails.add(joueur);
-        joueur.getJeu().getGraphe().getSommet(joueur.getJeu().getTuiles().indexOf(this)).ajouterJoueur(joueur);
+        incrementerVersion();
+        Jeu jeu = joueur.getJeu();
+        int indice = jeu.getIndiceTuile(this);
+        Graphe graphe = jeu.getGraphe();
+        Sommet sommet = graphe.getSommet(indice);
+        sommet.ajouterJoueur(joueur);
+        graphe.modifierSurcout(sommet, getSurcout());
+        ConnexiteIncrementale reseau = jeu.getReseau(joueur);
+        if (reseau.ajouter(indice))
+            for (Tuile voisine : voisines)
+                reseau.relier(indice, jeu.getIndiceTuile(voisine));
     }
 
     public void ajouterGare() {
@@ -29,6 +29,7 @@ public class TuileVille extends Tuile {
     @Override
     public void ajouterGare() {
         nbGaresPosees += 1;
+        incrementerVersion();
     }
 
     @Override
@@ -1,6 +1,28 @@
 package fr.umontpellier.iut.trains;
 
+import fr.umontpellier.iut.graphes.ArbreDeCoupes;
+import fr.umontpellier.iut.graphes.ArbreDeSteiner;
+import fr.umontpellier.iut.graphes.ArbrePlusCourtsChemins;
+import fr.umontpellier.iut.graphes.Biconnexite;
+import fr.umontpellier.iut.graphes.ClassesConnexite;
+import fr.umontpellier.iut.graphes.Cliques;
+import fr.umontpellier.iut.graphes.Coloration;
+import fr.umontpellier.iut.graphes.ColorationOptimale;
+import fr.umontpellier.iut.graphes.ColorationParallele;
+import fr.umontpellier.iut.graphes.ConnexiteDynamique;
+import fr.umontpellier.iut.graphes.Dijkstra;
+import fr.umontpellier.iut.graphes.FlotMaximal;
+import fr.umontpellier.iut.graphes.GrapheCompact;
+import fr.umontpellier.iut.graphes.GrapheJournalise;
+import fr.umontpellier.iut.graphes.Isthmes;
+import fr.umontpellier.iut.graphes.Plongements;
+import fr.umontpellier.iut.graphes.RechercheAEtoile;
+import fr.umontpellier.iut.graphes.RechercheMotifs;
 import fr.umontpellier.iut.graphes.Sommet;
+import fr.umontpellier.iut.graphes.SousGrapheInduit;
+import fr.umontpellier.iut.graphes.SurcoutsDynamiques;
+import fr.umontpellier.iut.graphes.UnionFind;
+import fr.umontpellier.iut.trains.cartes.EffetTour;
 import org.junit.Test;
 import org.junit.jupiter.api.Timeout;
 
@@ -8,6 +30,7 @@ import fr.umontpellier.iut.graphes.Graphe;
 import fr.umontpellier.iut.trains.plateau.Plateau;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.jupiter.api.Assertions.*;
@@ -815,4 +838,1478 @@ public class GrapheTest {
         assertIterableEquals(List.of(1,1,1,1,4), g.getSequenceDegres());
         assertIterableEquals(res.entrySet(), g.getColorationGloutonne().entrySet());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_graphe_compact_tokyo() {
+        Jeu jeu = new Jeu(new String[]{"Batman", "Robin"}, new String[]{}, Plateau.TOKYO);
+        GrapheCompact depuisGraphe = jeu.getGraphe().getGrapheCompact();
+        GrapheCompact depuisTuiles = GrapheCompact.depuisTuiles(jeu.getTuiles());
+
+        assertEquals(66, depuisGraphe.getNbSommets());
+        assertEquals(156, depuisGraphe.getNbAretes());
+        assertEquals(depuisGraphe.getNbSommets(), depuisTuiles.getNbSommets());
+        assertEquals(depuisGraphe.getNbAretes(), depuisTuiles.getNbAretes());
+        for (int u = 0; u < depuisGraphe.getNbSommets(); u++) {
+            assertEquals(depuisGraphe.getIndice(u), depuisTuiles.getIndice(u));
+            assertEquals(depuisGraphe.getSurcout(u), depuisTuiles.getSurcout(u));
+            assertEquals(depuisGraphe.degre(u), depuisTuiles.degre(u));
+            for (int k = depuisGraphe.debutVoisins(u); k < depuisGraphe.finVoisins(u); k++)
+                assertTrue(depuisTuiles.sontVoisins(u, depuisGraphe.getVoisin(k)));
+        }
+    }
+
+    @Test
+    public void test_graphe_compact_mis_a_jour_apres_modification_d_un_sommet() {
+        initChaine(4);
+        GrapheCompact avant = g.getGrapheCompact();
+        assertSame(avant, g.getGrapheCompact());
+        assertTrue(g.estChaine());
+
+        ajouterAretePratique(0, 3);
+
+        assertNotSame(avant, g.getGrapheCompact());
+        assertEquals(4, g.getNbAretes());
+        assertTrue(g.estCycle());
+    }
+
+    @Test
+    public void test_get_sommet_indices_disperses() {
+        initVide();
+        int[] indices = {3, -7, 1_000_000, 42, Integer.MAX_VALUE, Integer.MIN_VALUE, 123_456_789};
+        for (int i : indices)
+            assertTrue(g.ajouterSommet(i));
+        for (int i : indices)
+            assertEquals(i, g.getSommet(i).getIndice());
+        assertNull(g.getSommet(4));
+
+        g.supprimerSommet(g.getSommet(1_000_000));
+        g.supprimerSommet(g.getSommet(-7));
+
+        assertNull(g.getSommet(1_000_000));
+        assertNull(g.getSommet(-7));
+        assertEquals(5, g.getNbSommets());
+        for (int i : new int[]{3, 42, Integer.MAX_VALUE, Integer.MIN_VALUE, 123_456_789})
+            assertEquals(i, g.getSommet(i).getIndice());
+    }
+
+    @Test
+    public void test_get_sommet_apres_fusion() {
+        initChaine(5);
+        Graphe res = Graphe.fusionnerEnsembleSommets(g, new HashSet<>(Set.of(g.getSommet(1), g.getSommet(2))));
+
+        assertNull(res.getSommet(2));
+        assertEquals(1, res.getSommet(1).getIndice());
+        assertTrue(res.getSommet(3).getVoisins().stream().anyMatch(v -> v == res.getSommet(1)));
+    }
+
+    @Test
+    public void test_classes_connexite_union_find() {
+        initChaine(3);
+        ajouterChaineNonReliee(4);
+        g.ajouterSommet(500);
+
+        ClassesConnexite classes = g.getClassesConnexite();
+        GrapheCompact c = classes.getGraphe();
+
+        assertEquals(3, classes.getNbClasses());
+        assertFalse(classes.estConnexe());
+        assertTrue(classes.memeClasse(c.getId(0), c.getId(2)));
+        assertFalse(classes.memeClasse(c.getId(0), c.getId(777)));
+        assertEquals(classes.getClasse(c.getId(777)), classes.getClasse(c.getId(780)));
+        assertArrayEquals(new int[]{c.getId(0), c.getId(1), c.getId(2)}, classes.getMembres(classes.getClasse(c.getId(1))));
+        assertEquals(1, classes.getTaille(classes.getClasse(c.getId(500))));
+        assertSame(classes, g.getClassesConnexite());
+        assertEquals(Set.of(g.getSommet(777), g.getSommet(778), g.getSommet(779), g.getSommet(780)), g.getClasseConnexite(g.getSommet(779)));
+    }
+
+    @Test
+    public void test_est_connexe_longue_chaine() {
+        initChaine(100_000);
+
+        assertTrue(g.estConnexe());
+        assertTrue(g.estArbre());
+        g.supprimerArete(g.getSommet(50_000), g.getSommet(50_001));
+        assertFalse(g.estConnexe());
+        assertEquals(2, g.getEnsembleClassesConnexite().size());
+    }
+
+    @Test
+    public void test_isthmes_et_composantes_deux_arete_connexes() {
+        // Deux triangles 0-1-2 et 3-4-5 reliés par l'arête 2-3, plus une pendante 5-6
+        initSommet(7);
+        for (int[] arete : new int[][]{{0, 1}, {1, 2}, {2, 0}, {3, 4}, {4, 5}, {5, 3}, {2, 3}, {5, 6}})
+            ajouterAretePratique(arete[0], arete[1]);
+
+        Isthmes isthmes = g.getIsthmes();
+
+        assertEquals(2, isthmes.getNbIsthmes());
+        assertEquals(Set.of(Set.of(g.getSommet(2), g.getSommet(3)), Set.of(g.getSommet(5), g.getSommet(6))),
+                isthmes.getEnsembleIsthmes());
+        assertEquals(Set.of(Set.of(g.getSommet(0), g.getSommet(1), g.getSommet(2)),
+                Set.of(g.getSommet(3), g.getSommet(4), g.getSommet(5)), Set.of(g.getSommet(6))),
+                isthmes.getEnsembleComposantes());
+        assertTrue(g.possedeUnIsthme());
+
+        g.ajouterArete(g.getSommet(0), g.getSommet(3));
+        g.ajouterArete(g.getSommet(6), g.getSommet(4));
+        assertFalse(g.possedeUnIsthme());
+        assertEquals(1, g.getIsthmes().getNbComposantes());
+    }
+
+    @Test
+    public void test_isthmes_longue_chaine() {
+        initChaine(100_000);
+
+        assertEquals(99_999, g.getIsthmes().getNbIsthmes());
+    }
+
+    @Test
+    public void test_points_d_articulation_et_blocs() {
+        // Triangle 0-1-2, chaîne 2-3-4, triangle 4-5-6, sommet isolé 7
+        initSommet(8);
+        for (int[] arete : new int[][]{{0, 1}, {1, 2}, {2, 0}, {2, 3}, {3, 4}, {4, 5}, {5, 6}, {6, 4}})
+            ajouterAretePratique(arete[0], arete[1]);
+
+        Biconnexite biconnexite = g.getBiconnexite();
+
+        assertEquals(Set.of(g.getSommet(2), g.getSommet(3), g.getSommet(4)), g.getPointsDArticulation());
+        assertEquals(Set.of(Set.of(g.getSommet(0), g.getSommet(1), g.getSommet(2)),
+                Set.of(g.getSommet(2), g.getSommet(3)), Set.of(g.getSommet(3), g.getSommet(4)),
+                Set.of(g.getSommet(4), g.getSommet(5), g.getSommet(6)), Set.of(g.getSommet(7))),
+                biconnexite.getEnsembleBlocs());
+
+        GrapheCompact arbre = biconnexite.getArbreBlocs();
+        assertEquals(5 + 3, arbre.getNbSommets());
+        assertEquals(6, arbre.getNbAretes());
+        assertEquals(2, arbre.degre(biconnexite.getNoeudArticulation(biconnexite.getGraphe().getId(3))));
+        assertEquals(-1, biconnexite.getNoeudArticulation(biconnexite.getGraphe().getId(0)));
+    }
+
+    @Test
+    public void test_points_d_articulation_osaka() {
+        Jeu jeu = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA);
+        Graphe graphe = jeu.getGraphe();
+
+        // Un sommet est un point d'articulation si et seulement si le supprimer déconnecte le graphe
+        Set<Sommet> attendus = new HashSet<>();
+        for (Sommet s : graphe.getSommets()) {
+            Set<Sommet> autres = new HashSet<>(graphe.getSommets());
+            autres.remove(s);
+            if (!new Graphe(graphe, autres).estConnexe())
+                attendus.add(s);
+        }
+        assertEquals(attendus, graphe.getPointsDArticulation());
+    }
+
+    @Test
+    public void test_ensemble_critique() {
+        // Deux chemins 0-1-2-5 et 0-3-4-5, plus un raccourci 1-4
+        initSommet(7);
+        for (int[] arete : new int[][]{{0, 1}, {1, 2}, {2, 5}, {0, 3}, {3, 4}, {4, 5}, {1, 4}})
+            ajouterAretePratique(arete[0], arete[1]);
+
+        Set<Sommet> critique = g.getEnsembleCritique(g.getSommet(0), g.getSommet(5));
+        assertEquals(2, critique.size());
+        Set<Sommet> restants = new HashSet<>(g.getSommets());
+        restants.removeAll(critique);
+        Graphe sansCritique = new Graphe(g, restants);
+        assertFalse(sansCritique.getClasseConnexite(sansCritique.getSommet(0)).contains(sansCritique.getSommet(5)));
+
+        assertEquals(2, g.getNbCheminsDisjoints(g.getSommet(0), g.getSommet(5)));
+        assertEquals(2, g.getEnsembleCritique(g.getSommet(0), g.getSommet(2)).size());
+        assertEquals(Set.of(), g.getEnsembleCritique(g.getSommet(0), g.getSommet(6)));
+        assertEquals(Set.of(g.getSommet(1)), g.getEnsembleCritique(g.getSommet(0), g.getSommet(1)));
+    }
+
+    @Test
+    public void test_chemins_disjoints_complet() {
+        initSommet(6);
+        relierAllSommets();
+
+        assertEquals(5, g.getNbCheminsDisjoints(g.getSommet(0), g.getSommet(3)));
+    }
+
+    @Test
+    public void test_ensemble_critique_tokyo() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe graphe = jeu.getGraphe();
+        Sommet s = graphe.getSommet(0);
+        Sommet t = graphe.getSommets().stream().max(Comparator.comparingInt(Sommet::getIndice)).orElseThrow();
+
+        Set<Sommet> critique = graphe.getEnsembleCritique(s, t);
+        assertEquals(graphe.getNbCheminsDisjoints(s, t), critique.size());
+        Set<Sommet> restants = new HashSet<>(graphe.getSommets());
+        restants.removeAll(critique);
+        Graphe sansCritique = new Graphe(graphe, restants);
+        assertFalse(sansCritique.getClasseConnexite(sansCritique.getSommet(0)).contains(t));
+    }
+
+    @Test
+    public void test_arbre_de_coupes_osaka() {
+        Jeu jeu = new Jeu(new String[]{"Lois", "Clark"}, new String[]{}, Plateau.OSAKA);
+        Graphe graphe = jeu.getGraphe();
+        GrapheCompact c = graphe.getGrapheCompact();
+        FlotMaximal reseau = new FlotMaximal(c.getNbSommets());
+        for (int u = 0; u < c.getNbSommets(); u++)
+            for (int k = c.debutVoisins(u); k < c.finVoisins(u); k++)
+                reseau.ajouterArc(u, c.getVoisin(k), 1);
+
+        ArbreDeCoupes arbre = graphe.getArbreDeCoupes();
+        for (int u = 0; u < c.getNbSommets(); u++)
+            for (int v = u + 1; v < c.getNbSommets(); v++)
+                assertEquals(reseau.calculer(u, v), arbre.getCoupeMinimale(u, v));
+    }
+
+    @Test
+    public void test_arbre_de_coupes_invalide_apres_modification() {
+        initCycle(6);
+        ArbreDeCoupes arbre = g.getArbreDeCoupes();
+        assertSame(arbre, g.getArbreDeCoupes());
+        assertEquals(2, g.getCoupeMinimaleAretes(g.getSommet(0), g.getSommet(3)));
+
+        g.supprimerArete(g.getSommet(1), g.getSommet(2));
+
+        assertNotSame(arbre, g.getArbreDeCoupes());
+        assertEquals(1, g.getCoupeMinimaleAretes(g.getSommet(0), g.getSommet(3)));
+        g.supprimerSommet(g.getSommet(4));
+        assertEquals(0, g.getCoupeMinimaleAretes(g.getSommet(0), g.getSommet(3)));
+    }
+
+    private Graphe genererGrapheAleatoire(int n, int m, long graine) {
+        Random random = new Random(graine);
+        Graphe graphe = new Graphe();
+        for (int i = 0; i < n; i++)
+            graphe.ajouterSommet(new Sommet.SommetBuilder().setIndice(3 * i).setSurcout(random.nextInt(6)).createSommet());
+        for (int k = 0; k < m; k++) {
+            Sommet s = graphe.getSommet(3 * random.nextInt(n)), t = graphe.getSommet(3 * random.nextInt(n));
+            if (s != t)
+                graphe.ajouterArete(s, t);
+        }
+        return graphe;
+    }
+
+    /**
+     * @return la grille de {@code cote} x {@code cote} sommets (le sommet d'indice {@code l * cote + col} est en
+     * ligne l, colonne col) reliés à droite, en bas et en diagonale : planaire, fait de triangles, de degré au
+     * plus 6, comme un grand plateau
+     */
+    private static Graphe genererGrilleTriangulee(int cote) {
+        Graphe graphe = new Graphe(cote * cote);
+        for (int l = 0; l < cote; l++) {
+            for (int col = 0; col < cote; col++) {
+                Sommet s = graphe.getSommet(l * cote + col);
+                if (col + 1 < cote)
+                    graphe.ajouterArete(s, graphe.getSommet(l * cote + col + 1));
+                if (l + 1 < cote)
+                    graphe.ajouterArete(s, graphe.getSommet((l + 1) * cote + col));
+                if (l + 1 < cote && col + 1 < cote)
+                    graphe.ajouterArete(s, graphe.getSommet((l + 1) * cote + col + 1));
+            }
+        }
+        return graphe;
+    }
+
+    @Test
+    public void test_distances_comparees_a_floyd_warshall() {
+        Graphe graphe = genererGrapheAleatoire(60, 120, 42);
+        List<Sommet> sommets = new ArrayList<>(graphe.getSommets());
+        int n = sommets.size();
+        long[][] d = new long[n][n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                d[i][j] = i == j ? 0 : sommets.get(i).estVoisin(sommets.get(j)) ? sommets.get(j).getSurcout() : Integer.MAX_VALUE;
+        for (int k = 0; k < n; k++)
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                assertEquals(d[i][j], graphe.getDistance(sommets.get(i), sommets.get(j)));
+    }
+
+    @Test
+    public void test_distance_multi_sources_tokyo() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe graphe = jeu.getGraphe();
+        Set<Sommet> depart = Set.of(graphe.getSommet(0), graphe.getSommet(34), graphe.getSommet(13));
+
+        for (Sommet arrivee : graphe.getSommets()) {
+            int attendu = Integer.MAX_VALUE;
+            for (Sommet s : depart)
+                attendu = Math.min(attendu, graphe.getDistance(s, arrivee));
+            assertEquals(attendu, graphe.getDistance(depart, arrivee));
+        }
+    }
+
+
+    @Test
+    public void test_cache_distances_apres_modifications_de_surcouts() {
+        Graphe graphe = genererGrapheAleatoire(80, 160, 7);
+        graphe.activerCacheDistances();
+        graphe.getCacheDistances().calculerTout();
+        List<Sommet> sommets = new ArrayList<>(graphe.getSommets());
+        Random random = new Random(3);
+
+        for (int etape = 0; etape < 40; etape++) {
+            Sommet s = sommets.get(random.nextInt(sommets.size()));
+            graphe.modifierSurcout(s, Math.max(0, s.getSurcout() + random.nextInt(7) - 3));
+            GrapheCompact c = new GrapheCompact(graphe);
+            Dijkstra dijkstra = new Dijkstra(c);
+            for (int u = 0; u < c.getNbSommets(); u += 7) {
+                dijkstra.calculer(u);
+                for (int v = 0; v < c.getNbSommets(); v++)
+                    assertEquals(dijkstra.getDistance(v), graphe.getDistance(c.getSommet(u), c.getSommet(v)));
+            }
+        }
+        assertEquals(80, graphe.getCacheDistances().getNbLignesCalculees());
+    }
+
+    @Test
+    public void test_cache_distances_tokyo_rails_et_gares() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe graphe = jeu.getGraphe();
+        graphe.activerCacheDistances();
+        assertEquals(4, graphe.getDistance(graphe.getSommet(0), graphe.getSommet(54)));
+        assertEquals(0, graphe.getDistance(graphe.getSommet(13), graphe.getSommet(54)));
+
+        jeu.getTuile(54).ajouterRail(jeu.getJoueurs().get(0));
+        assertEquals(1, graphe.getDistance(graphe.getSommet(13), graphe.getSommet(54)));
+        int ville = graphe.getSommets().stream().map(Sommet::getIndice)
+                .filter(i -> jeu.getTuile(i).peutPlacerGare()).findFirst().orElseThrow();
+        jeu.ajouterGare(ville);
+
+        GrapheCompact c = new GrapheCompact(graphe);
+        Dijkstra dijkstra = new Dijkstra(c);
+        for (int u = 0; u < c.getNbSommets(); u++) {
+            dijkstra.calculer(u);
+            for (int v = 0; v < c.getNbSommets(); v++)
+                assertEquals(dijkstra.getDistance(v), graphe.getDistance(c.getSommet(u), c.getSommet(v)));
+        }
+        Set<Sommet> depart = Set.of(graphe.getSommet(0), graphe.getSommet(ville));
+        dijkstra.calculer(0, c.getId(graphe.getSommet(ville)));
+        assertEquals(dijkstra.getDistance(c.getId(graphe.getSommet(54))), graphe.getDistance(depart, graphe.getSommet(54)));
+    }
+
+
+    @Test
+    public void test_arbre_plus_courts_chemins_chaine() {
+        initChaine(6);
+        ArbrePlusCourtsChemins arbre = g.getArbrePlusCourtsChemins(g.getSommet(0));
+
+        List<Sommet> chemin = arbre.getChemin(g.getSommet(5));
+        assertEquals(6, chemin.size());
+        for (int i = 0; i < 6; i++)
+            assertEquals(i, chemin.get(i).getIndice());
+        assertEquals(List.of(g.getSommet(0)), arbre.getChemin(g.getSommet(0)));
+        assertEquals(0, arbre.getDistance(g.getSommet(0)));
+    }
+
+    @Test
+    public void test_arbre_plus_courts_chemins_tokyo() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe graphe = jeu.getGraphe();
+        Set<Sommet> depart = Set.of(graphe.getSommet(0), graphe.getSommet(34));
+        ArbrePlusCourtsChemins arbre = graphe.getArbrePlusCourtsChemins(depart);
+
+        for (Sommet arrivee : graphe.getSommets()) {
+            List<Sommet> chemin = arbre.getChemin(arrivee);
+            assertEquals(graphe.getDistance(depart, arrivee), arbre.getDistance(arrivee));
+            assertTrue(depart.contains(chemin.get(0)));
+            assertSame(arrivee, chemin.get(chemin.size() - 1));
+            int cout = 0;
+            for (int i = 1; i < chemin.size(); i++) {
+                assertTrue(chemin.get(i - 1).estVoisin(chemin.get(i)));
+                cout += chemin.get(i).getSurcout();
+            }
+            assertEquals(arbre.getDistance(arrivee), cout);
+        }
+    }
+
+
+    @Test
+    public void test_a_etoile_tokyo_comme_dijkstra() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe graphe = jeu.getGraphe();
+        assertTrue(graphe.getRechercheAEtoile().estHeuristiqueActive());
+
+        for (Sommet depart : graphe.getSommets())
+            for (Sommet arrivee : graphe.getSommets())
+                assertEquals(graphe.getDistance(depart, arrivee), graphe.getDistanceAEtoile(depart, arrivee));
+        assertEquals(4, graphe.getDistanceAEtoile(graphe.getSommet(0), graphe.getSommet(54)));
+    }
+
+    @Test
+    public void test_a_etoile_grande_grille() {
+        // Grille de 60 lignes de 60 cases reliées comme les tuiles du plateau, surcout 1 partout
+        int n = 60;
+        Graphe graphe = new Graphe();
+        for (int u = 0; u < n * n; u++)
+            graphe.ajouterSommet(new Sommet.SommetBuilder().setIndice(u).setSurcout(1).setJoueurs(new HashSet<>()).createSommet());
+        int[] lignes = new int[n * n], colonnes = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int u = i * n + j;
+                lignes[u] = i;
+                colonnes[u] = j;
+                if (j + 1 < n)
+                    graphe.ajouterArete(graphe.getSommet(u), graphe.getSommet(u + 1));
+                if (i + 1 < n)
+                    graphe.ajouterArete(graphe.getSommet(u), graphe.getSommet(u + n));
+                if (i + 1 < n && i % 2 == 0 && j > 0)
+                    graphe.ajouterArete(graphe.getSommet(u), graphe.getSommet(u + n - 1));
+                if (i + 1 < n && i % 2 == 1 && j + 1 < n)
+                    graphe.ajouterArete(graphe.getSommet(u), graphe.getSommet(u + n + 1));
+            }
+        }
+        GrapheCompact c = graphe.getGrapheCompact();
+        RechercheAEtoile recherche = new RechercheAEtoile(c, lignes, colonnes);
+        assertTrue(recherche.estHeuristiqueActive());
+        Dijkstra dijkstra = new Dijkstra(c);
+
+        int source = 5 * n + 5, cible = 10 * n + 40;
+        assertEquals(dijkstra.calculer(new int[]{source}, 1, cible), recherche.calculer(source, cible));
+        assertEquals(recherche.distanceHexagonale(source, cible), recherche.calculer(source, cible));
+        assertTrue(recherche.getNbSommetsExplores() < n * n / 4);
+    }
+
+
+    @Test
+    public void test_arbre_de_steiner_etoile() {
+        // Trois branches de longueur 3 autour d'un centre 0, surcout 1 partout, et un sommet isolé 10
+        Graphe graphe = new Graphe();
+        for (int i = 0; i <= 10; i++)
+            graphe.ajouterSommet(new Sommet.SommetBuilder().setIndice(i).setSurcout(1).setJoueurs(new HashSet<>()).createSommet());
+        for (int b = 0; b < 3; b++) {
+            graphe.ajouterArete(graphe.getSommet(0), graphe.getSommet(3 * b + 1));
+            graphe.ajouterArete(graphe.getSommet(3 * b + 1), graphe.getSommet(3 * b + 2));
+            graphe.ajouterArete(graphe.getSommet(3 * b + 2), graphe.getSommet(3 * b + 3));
+        }
+        ArbreDeSteiner arbre = graphe.getArbreDeSteiner(Set.of(graphe.getSommet(3)),
+                Set.of(graphe.getSommet(6), graphe.getSommet(9), graphe.getSommet(10)));
+
+        assertEquals(10, arbre.getSommets().size());
+        assertEquals(9, arbre.getCout());
+        assertEquals(1, arbre.getNbTerminauxNonRelies());
+    }
+
+    @Test
+    public void test_arbre_de_steiner_tokyo() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe graphe = jeu.getGraphe();
+        Set<Sommet> depart = Set.of(graphe.getSommet(0));
+        Set<Sommet> terminaux = Set.of(graphe.getSommet(54), graphe.getSommet(9), graphe.getSommet(35));
+        ArbreDeSteiner arbre = graphe.getArbreDeSteiner(depart, terminaux);
+
+        Set<Sommet> sommets = arbre.getSommets();
+        assertTrue(sommets.containsAll(depart) && sommets.containsAll(terminaux));
+        assertTrue(new Graphe(graphe, sommets).estConnexe());
+        int cout = sommets.stream().filter(s -> !depart.contains(s)).mapToInt(Sommet::getSurcout).sum();
+        assertEquals(cout, arbre.getCout());
+        int sommeDistances = terminaux.stream().mapToInt(t -> graphe.getDistance(depart, t)).sum();
+        assertTrue(arbre.getCout() <= sommeDistances);
+        for (Sommet t : terminaux)
+            assertTrue(arbre.getCout() >= graphe.getDistance(depart, t));
+    }
+
+
+    @Test
+    public void test_arbre_expansion_chaine() {
+        // 0 - 1 - 2 - 3 - 4, le joueur 0 possède 0 et 3, surcout 2 partout
+        Graphe graphe = new Graphe();
+        for (int i = 0; i < 5; i++) {
+            Set<Integer> joueurs = i == 0 || i == 3 ? new HashSet<>(Set.of(0)) : new HashSet<>();
+            graphe.ajouterSommet(new Sommet.SommetBuilder().setIndice(i).setSurcout(2).setJoueurs(joueurs).createSommet());
+        }
+        for (int i = 0; i < 4; i++)
+            graphe.ajouterArete(graphe.getSommet(i), graphe.getSommet(i + 1));
+        ArbrePlusCourtsChemins arbre = graphe.getArbreExpansion(0);
+
+        assertEquals(0, arbre.getDistance(graphe.getSommet(3)));
+        assertEquals(2, arbre.getDistance(graphe.getSommet(1)));
+        assertEquals(2, arbre.getDistance(graphe.getSommet(2)));
+        assertEquals(2, arbre.getDistance(graphe.getSommet(4)));
+        assertEquals(List.of(graphe.getSommet(3), graphe.getSommet(4)), arbre.getChemin(graphe.getSommet(4)));
+        assertEquals(Integer.MAX_VALUE, graphe.getArbreExpansion(1).getDistance(graphe.getSommet(2)));
+    }
+
+    @Test
+    public void test_arbre_expansion_tokyo() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe graphe = jeu.getGraphe();
+        Joueur joueur = jeu.getJoueurs().get(1);
+        for (int i : new int[]{0, 13, 34, 35})
+            jeu.getTuile(i).ajouterRail(joueur);
+        ArbrePlusCourtsChemins arbre = graphe.getArbreExpansion(1);
+
+        // Bellman-Ford où les tuiles du joueur ne coûtent rien
+        Map<Sommet, Integer> attendu = new HashMap<>();
+        for (Sommet s : graphe.getSommets())
+            attendu.put(s, s.getJoueurs().contains(1) ? 0 : Integer.MAX_VALUE);
+        boolean change = true;
+        while (change) {
+            change = false;
+            for (Sommet s : graphe.getSommets()) {
+                for (Sommet v : s.getVoisins()) {
+                    if (attendu.get(s) == Integer.MAX_VALUE)
+                        continue;
+                    int d = attendu.get(s) + (v.getJoueurs().contains(1) ? 0 : v.getSurcout());
+                    if (d < attendu.get(v)) {
+                        attendu.put(v, d);
+                        change = true;
+                    }
+                }
+            }
+        }
+        for (Sommet s : graphe.getSommets())
+            assertEquals(attendu.get(s), arbre.getDistance(s));
+    }
+
+
+    @Test
+    public void test_surcouts_dynamiques_suivent_les_tuiles() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe graphe = jeu.getGraphe();
+        SurcoutsDynamiques surcouts = jeu.getSurcoutsDynamiques(null);
+        Sommet depart = graphe.getSommet(13), arrivee = graphe.getSommet(54);
+        assertEquals(0, surcouts.getDistance(depart, arrivee));
+        int version = surcouts.getVersion();
+
+        jeu.getTuile(54).ajouterRail(jeu.getJoueurs().get(0));
+        assertEquals(1, surcouts.getDistance(depart, arrivee));
+        assertNotEquals(version, surcouts.getVersion());
+        assertSame(surcouts, jeu.getSurcoutsDynamiques(null));
+        for (Sommet s : graphe.getSommets())
+            for (Sommet t : graphe.getSommets())
+                assertEquals(graphe.getDistance(s, t), surcouts.getDistance(s, t));
+    }
+
+    @Test
+    public void test_surcouts_dynamiques_effets_du_joueur() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe graphe = jeu.getGraphe();
+        Joueur joueur = jeu.getJoueurs().get(0);
+        SurcoutsDynamiques surcouts = jeu.getSurcoutsDynamiques(joueur);
+        assertEquals(graphe.getDistance(graphe.getSommet(0), graphe.getSommet(54)),
+                surcouts.getDistance(graphe.getSommet(0), graphe.getSommet(54)));
+
+        joueur.ajouterEffet(EffetTour.VOIE_SOUTERRAINE);
+        for (Sommet s : graphe.getSommets())
+            assertEquals(0, surcouts.getDistance(graphe.getSommet(0), s));
+        assertEquals(graphe.getDistance(graphe.getSommet(0), graphe.getSommet(54)),
+                jeu.getSurcoutsDynamiques(null).getDistance(graphe.getSommet(0), graphe.getSommet(54)));
+    }
+
+
+    @Test
+    public void test_reseau_incremental_deux_morceaux_puis_un() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Joueur joueur = jeu.getJoueurs().get(0);
+        assertTrue(jeu.estReseauConnexe(joueur));
+        assertEquals(0, jeu.getNbComposantesReseau(joueur));
+
+        jeu.getTuile(0).ajouterRail(joueur);
+        jeu.getTuile(2).ajouterRail(joueur);
+        assertEquals(2, jeu.getNbComposantesReseau(joueur));
+        assertFalse(jeu.estReseauConnexe(joueur));
+        assertNotEquals(jeu.getComposanteReseau(joueur, 0), jeu.getComposanteReseau(joueur, 2));
+        assertEquals(-1, jeu.getComposanteReseau(joueur, 1));
+
+        jeu.getTuile(1).ajouterRail(joueur);
+        assertEquals(1, jeu.getNbComposantesReseau(joueur));
+        assertEquals(jeu.getComposanteReseau(joueur, 0), jeu.getComposanteReseau(joueur, 2));
+        assertEquals(0, jeu.getNbComposantesReseau(jeu.getJoueurs().get(1)));
+    }
+
+    @Test
+    public void test_reseau_incremental_comme_sous_graphe() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.OSAKA);
+        Joueur joueur = jeu.getJoueurs().get(1);
+        List<Integer> indices = new ArrayList<>(jeu.getGraphe().getSommets().stream().map(Sommet::getIndice).toList());
+        Collections.shuffle(indices, new Random(11));
+        for (int i : indices.subList(0, 30)) {
+            jeu.getTuile(i).ajouterRail(joueur);
+            Graphe reseau = jeu.getGraphe(joueur);
+            assertEquals(reseau.getClassesConnexite().getNbClasses(), jeu.getNbComposantesReseau(joueur));
+            for (Sommet s : reseau.getSommets())
+                for (Sommet t : reseau.getSommets())
+                    assertEquals(reseau.getClasseConnexite(s).contains(t),
+                            jeu.getComposanteReseau(joueur, s.getIndice()) == jeu.getComposanteReseau(joueur, t.getIndice()));
+        }
+    }
+
+
+    @Test
+    public void test_connexite_dynamique_comparee_a_union_find() {
+        int n = 60;
+        ConnexiteDynamique dynamique = new ConnexiteDynamique();
+        for (int u = 0; u < n; u++)
+            dynamique.ajouterSommet();
+        Random random = new Random(5);
+        Set<Long> aretes = new HashSet<>();
+        for (int etape = 0; etape < 4000; etape++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (u == v)
+                continue;
+            long cle = (long) Math.min(u, v) * n + Math.max(u, v);
+            // Plus d'ajouts que de suppressions au début, puis l'inverse, pour passer par tous les régimes
+            boolean ajout = random.nextInt(4000) > etape;
+            if (ajout && aretes.add(cle))
+                assertTrue(dynamique.ajouterArete(u, v));
+            else if (!ajout && aretes.remove(cle))
+                assertTrue(dynamique.supprimerArete(u, v));
+
+            UnionFind attendu = new UnionFind(n);
+            for (long a : aretes)
+                attendu.unir((int) (a / n), (int) (a % n));
+            assertEquals(attendu.getNbClasses(), dynamique.getNbClasses());
+            int x = random.nextInt(n), y = random.nextInt(n);
+            assertEquals(attendu.memeClasse(x, y), dynamique.sontConnectes(x, y));
+        }
+    }
+
+    @Test
+    public void test_connexite_dynamique_graphe() {
+        initCycle(6);
+        g.activerConnexiteDynamique();
+        assertTrue(g.estConnexe());
+
+        g.supprimerArete(g.getSommet(0), g.getSommet(1));
+        assertTrue(g.estConnexe());
+        g.supprimerArete(g.getSommet(3), g.getSommet(4));
+        assertFalse(g.estConnexe());
+        assertFalse(g.sontConnectes(g.getSommet(0), g.getSommet(3)));
+        assertTrue(g.sontConnectes(g.getSommet(1), g.getSommet(3)));
+
+        g.ajouterSommet(6);
+        g.ajouterArete(g.getSommet(6), g.getSommet(0));
+        g.ajouterArete(g.getSommet(6), g.getSommet(3));
+        assertTrue(g.estConnexe());
+        g.supprimerSommet(g.getSommet(6));
+        assertFalse(g.estConnexe());
+        assertEquals(2, g.getConnexiteDynamique().getNbClasses());
+    }
+
+    @Test
+    public void test_sous_graphe_induit_comme_copie() {
+        Graphe graphe = genererGrapheAleatoire(150, 400, 17);
+        Random random = new Random(3);
+        for (int essai = 0; essai < 20; essai++) {
+            Set<Sommet> X = new HashSet<>();
+            for (Sommet s : graphe.getSommets())
+                if (random.nextInt(3) > 0)
+                    X.add(s);
+            Graphe copie = new Graphe(graphe, X);
+            Graphe vue = graphe.getSousGrapheInduit(X);
+
+            assertEquals(copie.getSommets(), vue.getSommets());
+            assertEquals(copie.getNbSommets(), vue.getNbSommets());
+            assertEquals(copie.getNbAretes(), vue.getNbAretes());
+            assertEquals(copie.getAretes(), vue.getAretes());
+            assertEquals(copie.getSequenceDegres(), vue.getSequenceDegres());
+            assertEquals(copie.getEnsembleClassesConnexite(), vue.getEnsembleClassesConnexite());
+            assertEquals(copie.estForet(), vue.estForet());
+            assertEquals(copie.getIsthmes().getNbIsthmes(), vue.getIsthmes().getNbIsthmes());
+            for (Sommet s : graphe.getSommets()) {
+                assertEquals(copie.getSommet(s.getIndice()), vue.getSommet(s.getIndice()));
+                if (X.contains(s))
+                    assertEquals(copie.degre(copie.getSommet(s.getIndice())), vue.degre(s));
+            }
+            List<Sommet> sommets = new ArrayList<>(X);
+            for (int k = 0; k < 30 && !sommets.isEmpty(); k++) {
+                Sommet s = sommets.get(random.nextInt(sommets.size())), t = sommets.get(random.nextInt(sommets.size()));
+                assertEquals(copie.getDistance(s, t), vue.getDistance(s, t));
+            }
+        }
+        Graphe vue = graphe.getSousGrapheInduit(Set.of(graphe.getSommet(0)));
+        assertThrows(UnsupportedOperationException.class, () -> vue.ajouterSommet(1));
+        assertThrows(UnsupportedOperationException.class, () -> vue.supprimerSommet(graphe.getSommet(0)));
+    }
+
+    @Test
+    public void test_sous_graphe_induit_suit_le_parent() {
+        initChaine(6);
+        Graphe vue = new SousGrapheInduit(g, Set.of(g.getSommet(0), g.getSommet(1), g.getSommet(2), g.getSommet(4)));
+        assertEquals(4, vue.getNbSommets());
+        assertEquals(2, vue.getNbAretes());
+        assertEquals(2, vue.getClassesConnexite().getNbClasses());
+        assertEquals(2, vue.degre(g.getSommet(1)));
+        assertEquals(0, vue.degre(g.getSommet(3)));
+
+        g.ajouterArete(g.getSommet(2), g.getSommet(4));
+        assertTrue(vue.estConnexe());
+        assertTrue(vue.estChaine());
+        g.modifierSurcout(g.getSommet(4), 5);
+        assertEquals(5, vue.getDistance(g.getSommet(0), g.getSommet(4)));
+
+        g.supprimerSommet(g.getSommet(1));
+        assertEquals(3, vue.getNbSommets());
+        assertTrue(vue.getSommets().contains(g.getSommet(0)));
+        assertNull(vue.getSommet(1));
+        assertEquals(2, vue.getClassesConnexite().getNbClasses());
+    }
+
+    @Test
+    public void test_fusionner_partition() {
+        Graphe graphe = genererGrapheAleatoire(120, 300, 23);
+        List<Sommet> sommets = new ArrayList<>(graphe.getSommets());
+        Collections.shuffle(sommets, new Random(2));
+        List<Set<Sommet>> partition = new ArrayList<>();
+        for (int k = 0; k < 60; k += 6)
+            partition.add(new HashSet<>(sommets.subList(k, k + 6)));
+        Set<Set<Sommet>> aretesAvant = graphe.getAretes();
+        Map<Integer, Integer> surcoutsAvant = new HashMap<>();
+        graphe.getSommets().forEach(s -> surcoutsAvant.put(s.getIndice(), s.getSurcout()));
+
+        Graphe quotient = Graphe.fusionnerPartition(graphe, partition);
+        // Même résultat qu'en fusionnant les ensembles un par un
+        Graphe attendu = graphe;
+        for (Set<Sommet> ensemble : partition) {
+            Set<Sommet> dansAttendu = new HashSet<>();
+            for (Sommet s : ensemble)
+                dansAttendu.add(attendu.getSommet(s.getIndice()));
+            attendu = Graphe.fusionnerEnsembleSommets(attendu, dansAttendu);
+        }
+        assertEquals(attendu.getSommets(), quotient.getSommets());
+        assertEquals(attendu.getAretes(), quotient.getAretes());
+        for (Sommet s : quotient.getSommets()) {
+            Sommet t = attendu.getSommet(s.getIndice());
+            assertEquals(t.getSurcout(), s.getSurcout());
+            assertEquals(t.getNbPointsVictoire(), s.getNbPointsVictoire());
+            assertNotSame(graphe.getSommet(s.getIndice()), s);
+        }
+        assertEquals(120 - 50, quotient.getNbSommets());
+        // Le graphe source n'a pas été modifié
+        assertEquals(aretesAvant, graphe.getAretes());
+        assertEquals(120, graphe.getNbSommets());
+        graphe.getSommets().forEach(s -> assertEquals(surcoutsAvant.get(s.getIndice()), s.getSurcout()));
+    }
+
+    @Test
+    public void test_graphe_reseau_fusionne() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Joueur joueur = jeu.getJoueurs().get(0);
+        Graphe graphe = jeu.getGraphe();
+        Sommet depart = graphe.getSommets().stream().min(Comparator.comparingInt(Sommet::getIndice)).orElseThrow();
+        Sommet voisin = depart.getVoisins().stream().min(Comparator.comparingInt(Sommet::getIndice)).orElseThrow();
+        Sommet loin = graphe.getSommets().stream().max(Comparator.comparingInt(Sommet::getIndice)).orElseThrow();
+        for (Sommet s : List.of(depart, voisin, loin))
+            jeu.getTuile(s.getIndice()).ajouterRail(joueur);
+        int nbAretes = graphe.getNbAretes();
+
+        Graphe fusionne = jeu.getGrapheReseauFusionne(joueur);
+        assertEquals(graphe.getNbSommets() - 1, fusionne.getNbSommets());
+        assertNull(fusionne.getSommet(voisin.getIndice()));
+        Sommet morceau = fusionne.getSommet(depart.getIndice());
+        assertEquals(depart.getSurcout() + voisin.getSurcout(), morceau.getSurcout());
+        assertEquals(Set.of(0), morceau.getJoueurs());
+        assertEquals(Set.of(0), fusionne.getSommet(loin.getIndice()).getJoueurs());
+        assertEquals(nbAretes, graphe.getNbAretes());
+        assertTrue(graphe.getSommet(voisin.getIndice()).estVoisin(depart));
+    }
+
+    @Test
+    public void test_graphe_journalise_restaure_les_etats() {
+        GrapheJournalise graphe = new GrapheJournalise();
+        Random random = new Random(19);
+        for (int i = 0; i < 30; i++)
+            graphe.ajouterSommet(i);
+        int depart = graphe.creerPointDeRestauration();
+        List<Integer> points = new ArrayList<>();
+        List<Set<Set<Sommet>>> aretes = new ArrayList<>();
+        List<Map<Integer, Integer>> surcouts = new ArrayList<>();
+        for (int etape = 0; etape < 2000; etape++) {
+            int choix = random.nextInt(10);
+            if (choix == 0) {
+                points.add(graphe.creerPointDeRestauration());
+                aretes.add(graphe.getAretes());
+                Map<Integer, Integer> etat = new HashMap<>();
+                graphe.getSommets().forEach(s -> etat.put(s.getIndice(), s.getSurcout()));
+                surcouts.add(etat);
+            } else if (choix == 1 && !points.isEmpty()) {
+                int k = random.nextInt(points.size());
+                graphe.restaurer(points.get(k));
+                assertEquals(aretes.get(k), graphe.getAretes());
+                Map<Integer, Integer> etat = new HashMap<>();
+                graphe.getSommets().forEach(s -> etat.put(s.getIndice(), s.getSurcout()));
+                assertEquals(surcouts.get(k), etat);
+                // Les points créés après le point restauré ne sont plus valables
+                points.subList(k + 1, points.size()).clear();
+                aretes.subList(k + 1, aretes.size()).clear();
+                surcouts.subList(k + 1, surcouts.size()).clear();
+            } else {
+                int i = random.nextInt(40), j = random.nextInt(40);
+                Sommet s = graphe.getSommet(i), t = graphe.getSommet(j);
+                if (s == null)
+                    graphe.ajouterSommet(i);
+                else if (choix == 2)
+                    graphe.supprimerSommet(s);
+                else if (choix == 3)
+                    graphe.modifierSurcout(s, random.nextInt(5));
+                else if (t != null && s != t && choix < 7)
+                    graphe.ajouterArete(s, t);
+                else if (t != null)
+                    graphe.supprimerArete(s, t);
+            }
+        }
+        graphe.restaurer(depart);
+        assertEquals(30, graphe.getNbSommets());
+        assertEquals(0, graphe.getNbAretes());
+        assertEquals(30, graphe.getTailleJournal());
+        graphe.restaurer(0);
+        assertEquals(0, graphe.getNbSommets());
+    }
+
+    @Test
+    public void test_graphe_journalise_sur_le_plateau() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe plateau = jeu.getGraphe();
+        Set<Set<Sommet>> aretes = plateau.getAretes();
+        int nbClasses = plateau.getClassesConnexite().getNbClasses();
+        GrapheJournalise essai = new GrapheJournalise(plateau.getSommets());
+        essai.activerConnexiteDynamique();
+        plateau.activerCacheDistances();
+        Sommet depart = plateau.getSommet(0);
+        List<Integer> distances = new ArrayList<>();
+        for (Sommet t : plateau.getSommets())
+            distances.add(plateau.getDistance(depart, t));
+
+        for (int k = 0; k < 50; k++) {
+            int point = essai.creerPointDeRestauration();
+            List<Sommet> sommets = new ArrayList<>(essai.getSommets());
+            Sommet s = sommets.get(new Random(k).nextInt(sommets.size()));
+            essai.supprimerSommet(s);
+            essai.modifierSurcout(sommets.get(k), 9);
+            assertEquals(plateau.getNbSommets() - 1, essai.getNbSommets());
+            // Le plateau n'est pas touché pendant l'essai
+            int i = 0;
+            for (Sommet t : plateau.getSommets())
+                assertEquals(distances.get(i++), plateau.getDistance(depart, t));
+            assertEquals(aretes, plateau.getAretes());
+            essai.restaurer(point);
+            assertTrue(essai.estConnexe() == (nbClasses == 1));
+        }
+        assertEquals(0, essai.getTailleJournal());
+        assertEquals(aretes, plateau.getAretes());
+        assertEquals(nbClasses, plateau.getClassesConnexite().getNbClasses());
+        assertEquals(nbClasses, essai.getConnexiteDynamique().getNbClasses());
+    }
+
+    @Test
+    public void test_cliques_comparees_a_la_force_brute() {
+        for (int graine = 0; graine < 25; graine++) {
+            int n = 13;
+            Graphe graphe = genererGrapheAleatoire(n, 20 + 3 * graine, graine);
+            GrapheCompact c = graphe.getGrapheCompact();
+            int tailleMax = 0;
+            Set<Set<Sommet>> maximales = new HashSet<>();
+            for (int masque = 1; masque < 1 << n; masque++) {
+                boolean estClique = true;
+                for (int u = 0; u < n && estClique; u++)
+                    for (int v = u + 1; v < n && estClique; v++)
+                        if ((masque >> u & 1) == 1 && (masque >> v & 1) == 1 && !c.sontVoisins(u, v))
+                            estClique = false;
+                if (!estClique)
+                    continue;
+                tailleMax = Math.max(tailleMax, Integer.bitCount(masque));
+                boolean maximale = true;
+                for (int w = 0; w < n && maximale; w++) {
+                    if ((masque >> w & 1) == 1)
+                        continue;
+                    boolean relie = true;
+                    for (int u = 0; u < n; u++)
+                        if ((masque >> u & 1) == 1 && !c.sontVoisins(u, w))
+                            relie = false;
+                    maximale = !relie;
+                }
+                if (maximale) {
+                    Set<Sommet> clique = new HashSet<>();
+                    for (int u = 0; u < n; u++)
+                        if ((masque >> u & 1) == 1)
+                            clique.add(c.getSommet(u));
+                    maximales.add(clique);
+                }
+            }
+            Cliques cliques = graphe.getCliques();
+            assertEquals(tailleMax, cliques.getTailleMaximum());
+            assertEquals(maximales, cliques.getCliquesMaximales());
+            for (int k = 0; k <= n + 1; k++)
+                assertEquals(k <= tailleMax, graphe.possedeSousGrapheComplet(k));
+            int[] maximum = cliques.getCliqueMaximum();
+            for (int i = 0; i < maximum.length; i++)
+                for (int j = i + 1; j < maximum.length; j++)
+                    assertTrue(c.sontVoisins(maximum[i], maximum[j]));
+        }
+    }
+
+    @Test
+    public void test_cliques_graphes_connus() {
+        initSommet(7);
+        relierAllSommets();
+        assertTrue(g.possedeSousGrapheComplet(7));
+        assertFalse(g.possedeSousGrapheComplet(8));
+        assertEquals(6, g.getCliques().getDegenerescence());
+        assertEquals(1, g.getCliques().getCliquesMaximales().size());
+
+        initCycle(5);
+        assertTrue(g.possedeSousGrapheComplet(2));
+        assertFalse(g.possedeSousGrapheComplet(3));
+        assertEquals(5, g.getCliques().getCliquesMaximales().size());
+        g.ajouterArete(g.getSommet(0), g.getSommet(2));
+        assertTrue(g.possedeSousGrapheComplet(3));
+
+        // Le plateau est un pavage d'hexagones : trois tuiles qui se touchent deux à deux, jamais quatre
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe plateau = jeu.getGraphe();
+        assertTrue(plateau.possedeSousGrapheComplet(3));
+        assertFalse(plateau.possedeSousGrapheComplet(4));
+        assertEquals(3, plateau.getCliques().getTailleMaximum());
+        assertTrue(plateau.getCliques().getDegenerescence() <= 3);
+    }
+
+    private static long compterPlongementsForceBrute(GrapheCompact motif, GrapheCompact hote, int[] images, int u, boolean[] utilises) {
+        if (u == motif.getNbSommets())
+            return 1;
+        long nb = 0;
+        for (int v = 0; v < hote.getNbSommets(); v++) {
+            if (utilises[v])
+                continue;
+            boolean compatible = true;
+            for (int k = motif.debutVoisins(u); k < motif.finVoisins(u); k++) {
+                int w = motif.getVoisin(k);
+                if (w < u && !hote.sontVoisins(images[w], v))
+                    compatible = false;
+            }
+            if (!compatible)
+                continue;
+            images[u] = v;
+            utilises[v] = true;
+            nb += compterPlongementsForceBrute(motif, hote, images, u + 1, utilises);
+            utilises[v] = false;
+        }
+        return nb;
+    }
+
+    @Test
+    public void test_plongements_compares_a_la_force_brute() {
+        Random random = new Random(21);
+        for (int essai = 0; essai < 40; essai++) {
+            Graphe hote = genererGrapheAleatoire(9, 10 + random.nextInt(15), random.nextLong());
+            Graphe motif = genererGrapheAleatoire(2 + random.nextInt(4), random.nextInt(7), random.nextLong());
+            GrapheCompact m = motif.getGrapheCompact(), h = hote.getGrapheCompact();
+            long attendu = compterPlongementsForceBrute(m, h, new int[m.getNbSommets()], 0, new boolean[h.getNbSommets()]);
+
+            Plongements plongements = hote.getPlongements(motif);
+            assertEquals(attendu, plongements.compter());
+            assertEquals(attendu > 0, hote.possedeSousGrapheIsomorphe(motif));
+            Set<List<Integer>> distincts = new HashSet<>();
+            for (int[] plongement : plongements) {
+                for (int u = 0; u < m.getNbSommets(); u++)
+                    for (int k = m.debutVoisins(u); k < m.finVoisins(u); k++)
+                        assertTrue(h.sontVoisins(plongement[u], plongement[m.getVoisin(k)]));
+                distincts.add(Arrays.stream(plongement).boxed().toList());
+            }
+            assertEquals(attendu, distincts.size());
+        }
+    }
+
+    @Test
+    public void test_sous_graphe_isomorphe_sur_le_plateau() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe plateau = jeu.getGraphe();
+
+        initCycle(3);
+        assertTrue(plateau.possedeSousGrapheIsomorphe(g));
+        initCycle(6);
+        assertTrue(plateau.possedeSousGrapheIsomorphe(g));
+        initChaine(12);
+        assertTrue(plateau.possedeSousGrapheIsomorphe(g));
+        // Une tuile a au plus six voisines, et deux tuiles voisines n'en ont que deux en commun
+        initSommet(8);
+        for (int i = 1; i < 8; i++)
+            ajouterAretePratique(0, i);
+        assertFalse(plateau.possedeSousGrapheIsomorphe(g));
+        initSommet(4);
+        relierAllSommets();
+        assertFalse(plateau.possedeSousGrapheIsomorphe(g));
+
+        // Le graphe vide est un sous-graphe de tout graphe, et un graphe est un sous-graphe de lui-même
+        initVide();
+        assertTrue(plateau.possedeSousGrapheIsomorphe(g));
+        assertTrue(plateau.possedeSousGrapheIsomorphe(plateau));
+        Map<Sommet, Sommet> images = plateau.getPlongements(plateau).getPremierPlongement();
+        assertEquals(plateau.getNbSommets(), new HashSet<>(images.values()).size());
+    }
+
+    private static Graphe renumeroter(Graphe graphe, int decalage) {
+        Graphe copie = new Graphe();
+        for (Sommet s : graphe.getSommets())
+            copie.ajouterSommet(s.getIndice() * 7 + decalage);
+        for (Set<Sommet> arete : graphe.getAretes()) {
+            Iterator<Sommet> it = arete.iterator();
+            Sommet s = it.next(), t = it.next();
+            copie.ajouterArete(copie.getSommet(s.getIndice() * 7 + decalage), copie.getSommet(t.getIndice() * 7 + decalage));
+        }
+        return copie;
+    }
+
+    @Test
+    public void test_recherche_motifs_comme_recherches_separees() {
+        Random random = new Random(22);
+        Graphe hote = genererGrapheAleatoire(14, 30, 4);
+        List<Graphe> motifs = new ArrayList<>();
+        for (int k = 0; k < 16; k++)
+            motifs.add(genererGrapheAleatoire(2 + random.nextInt(4), random.nextInt(8), random.nextLong()));
+        // Des copies renumérotées, qui doivent être regroupées avec leur original
+        motifs.add(renumeroter(motifs.get(3), 1));
+        motifs.add(renumeroter(motifs.get(7), 2));
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            List<RechercheMotifs.Resultat> resultats = new RechercheMotifs(hote).rechercher(motifs, pool);
+            assertEquals(motifs.size(), resultats.size());
+            for (int k = 0; k < motifs.size(); k++) {
+                RechercheMotifs.Resultat resultat = resultats.get(k);
+                assertSame(motifs.get(k), resultat.motif());
+                long attendu = hote.getPlongements(motifs.get(k)).compter();
+                assertEquals(attendu, resultat.nbPlongements());
+                assertEquals(attendu > 0, resultat.estPresent());
+                if (attendu > 0)
+                    assertEquals(motifs.get(k).getPlongements(motifs.get(k)).compter(), resultat.nbAutomorphismes());
+            }
+            assertEquals(resultats.get(3).nbPlongements(), resultats.get(16).nbPlongements());
+            assertEquals(resultats.get(7).nbPlongements(), resultats.get(17).nbPlongements());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void test_recherche_motifs_sur_le_plateau() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.TOKYO);
+        Graphe plateau = jeu.getGraphe();
+        GrapheCompact c = plateau.getGrapheCompact();
+        long triangles = 0;
+        for (int u = 0; u < c.getNbSommets(); u++)
+            for (int k = c.debutVoisins(u); k < c.finVoisins(u); k++)
+                for (int l = k + 1; l < c.finVoisins(u); l++)
+                    if (c.getVoisin(k) > u && c.sontVoisins(c.getVoisin(k), c.getVoisin(l)))
+                        triangles++;
+
+        List<Graphe> motifs = new ArrayList<>();
+        initCycle(3);
+        motifs.add(g);
+        initSommet(4);
+        relierAllSommets();
+        motifs.add(g);
+        // K4 avec un sommet pendant : ses plongements prolongent ceux de K4, son plus grand motif contenu ;
+        // K4 étant absent, il est déclaré absent sans recherche
+        initSommet(5);
+        relierAllSommets();
+        g.supprimerArete(g.getSommet(4), g.getSommet(0));
+        g.supprimerArete(g.getSommet(4), g.getSommet(1));
+        g.supprimerArete(g.getSommet(4), g.getSommet(2));
+        motifs.add(g);
+        initChaine(2);
+        motifs.add(g);
+
+        List<RechercheMotifs.Resultat> resultats = new RechercheMotifs(plateau).rechercher(motifs);
+        assertEquals(triangles, resultats.get(0).getNbOccurrences());
+        assertEquals(6 * triangles, resultats.get(0).nbPlongements());
+        assertFalse(resultats.get(1).estPresent());
+        assertFalse(resultats.get(2).estPresent());
+        assertEquals(plateau.getNbAretes(), resultats.get(3).getNbOccurrences());
+    }
+
+    private static boolean coloriable(GrapheCompact c, int[] couleurs, int u, int k) {
+        if (u == c.getNbSommets())
+            return true;
+        for (int couleur = 0; couleur < k; couleur++) {
+            boolean libre = true;
+            for (int i = c.debutVoisins(u); i < c.finVoisins(u); i++)
+                if (c.getVoisin(i) < u && couleurs[c.getVoisin(i)] == couleur)
+                    libre = false;
+            if (libre) {
+                couleurs[u] = couleur;
+                if (coloriable(c, couleurs, u + 1, k))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static void verifierColoration(Graphe graphe, Map<Integer, Set<Sommet>> coloration) {
+        Set<Sommet> vus = new HashSet<>();
+        for (Set<Sommet> classe : coloration.values()) {
+            assertFalse(classe.isEmpty());
+            for (Sommet s : classe) {
+                assertTrue(vus.add(s));
+                for (Sommet t : classe)
+                    assertFalse(graphe.getSommet(s.getIndice()).estVoisin(t));
+            }
+        }
+        assertEquals(graphe.getSommets(), vus);
+    }
+
+    @Test
+    public void test_coloration_optimale_comparee_a_la_force_brute() {
+        List<Graphe> graphes = new ArrayList<>();
+        for (int graine = 0; graine < 30; graine++)
+            graphes.add(genererGrapheAleatoire(10, 8 + graine, graine));
+        initCycle(7);
+        graphes.add(g);
+        // Graphe de Grötzsch : sans triangle mais il faut quatre couleurs
+        Graphe grotzsch = new Graphe(11);
+        int[][] aretes = {{0, 1}, {1, 2}, {2, 3}, {3, 4}, {4, 0}, {5, 1}, {5, 4}, {6, 0}, {6, 2}, {7, 1}, {7, 3},
+                {8, 2}, {8, 4}, {9, 3}, {9, 0}, {10, 5}, {10, 6}, {10, 7}, {10, 8}, {10, 9}};
+        for (int[] arete : aretes)
+            grotzsch.ajouterArete(grotzsch.getSommet(arete[0]), grotzsch.getSommet(arete[1]));
+        graphes.add(grotzsch);
+
+        for (Graphe graphe : graphes) {
+            GrapheCompact c = graphe.getGrapheCompact();
+            int chromatique = 0;
+            while (!coloriable(c, new int[c.getNbSommets()], 0, chromatique))
+                chromatique++;
+            Map<Integer, Set<Sommet>> coloration = graphe.getColorationPropreOptimale();
+            verifierColoration(graphe, coloration);
+            assertEquals(chromatique, coloration.size());
+            ColorationOptimale optimale = new ColorationOptimale(c);
+            assertEquals(chromatique, optimale.getNbCouleurs());
+            assertTrue(optimale.getColoration().estPropre());
+            assertTrue(optimale.getBorneInferieure() <= chromatique);
+        }
+        assertEquals(2, new ColorationOptimale(grotzsch.getGrapheCompact()).getBorneInferieure());
+    }
+
+    @Test
+    public void test_coloration_optimale_du_plateau() {
+        for (Plateau carte : List.of(Plateau.TOKYO, Plateau.OSAKA)) {
+            Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, carte);
+            Graphe plateau = jeu.getGraphe();
+            Map<Integer, Set<Sommet>> coloration = plateau.getColorationPropreOptimale();
+            verifierColoration(plateau, coloration);
+            assertEquals(3, coloration.size());
+        }
+    }
+
+    @Test
+    public void test_coloration_gloutonne_suit_l_ordre_des_degres() {
+        for (int graine = 0; graine < 20; graine++) {
+            Graphe graphe = genererGrapheAleatoire(80, 100 + 20 * graine, graine);
+            // Référence : tri par degré décroissant puis indice croissant, plus petite couleur libre
+            List<Sommet> ordre = new ArrayList<>(graphe.getSommets());
+            ordre.sort(Comparator.comparingInt((Sommet s) -> -graphe.degre(s)).thenComparingInt(Sommet::getIndice));
+            Map<Sommet, Integer> couleurs = new HashMap<>();
+            for (Sommet s : ordre) {
+                int couleur = 1;
+                while (true) {
+                    int c = couleur;
+                    if (s.getVoisins().stream().noneMatch(v -> couleurs.get(v) != null && couleurs.get(v) == c))
+                        break;
+                    couleur++;
+                }
+                couleurs.put(s, couleur);
+            }
+            Map<Integer, Set<Sommet>> attendu = new HashMap<>();
+            couleurs.forEach((s, c) -> attendu.computeIfAbsent(c, k -> new HashSet<>()).add(s));
+            assertEquals(attendu, graphe.getColorationGloutonne());
+        }
+    }
+
+    @Test
+    public void test_coloration_gloutonne_grand_graphe() {
+        // Grille triangulée de 150 x 150 sommets (degré au plus 6), comme un grand plateau
+        int cote = 150;
+        Graphe graphe = genererGrilleTriangulee(cote);
+        Coloration coloration = Coloration.gloutonne(graphe.getGrapheCompact());
+        assertTrue(coloration.estPropre());
+        assertTrue(coloration.getNbCouleurs() <= 7);
+        Map<Integer, Set<Sommet>> classes = graphe.getColorationGloutonne();
+        assertEquals(coloration.getNbCouleurs(), classes.size());
+        assertEquals(cote * cote, classes.values().stream().mapToInt(Set::size).sum());
+    }
+
+    @Test
+    public void test_coloration_parallele_deterministe() {
+        Graphe graphe = genererGrapheAleatoire(3000, 15000, 25);
+        GrapheCompact c = graphe.getGrapheCompact();
+        Coloration reference = ColorationParallele.calculer(c, 7, 1);
+        assertTrue(reference.estPropre());
+        assertTrue(reference.getNbCouleurs() <= graphe.degreMax() + 1);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int essai = 0; essai < 3; essai++) {
+                Coloration coloration = ColorationParallele.calculer(c, 7, pool);
+                for (int u = 0; u < c.getNbSommets(); u++)
+                    assertEquals(reference.getCouleur(u), coloration.getCouleur(u));
+            }
+            assertTrue(ColorationParallele.calculer(c, 8, pool).estPropre());
+        } finally {
+            pool.shutdown();
+        }
+        // Une étoile : le centre a plus de 64 voisins
+        initSommet(200);
+        for (int i = 1; i < 200; i++)
+            ajouterAretePratique(0, i);
+        Map<Integer, Set<Sommet>> coloration = g.getColorationParallele(3, 2);
+        verifierColoration(g, coloration);
+        assertEquals(2, coloration.size());
+    }
+
+    @Test
+    public void test_coloration_parallele_grand_graphe() {
+        // Grille triangulée de 200 x 200 sommets (40 000 objets Sommet reliés par ajouterArete)
+        int cote = 200;
+        Graphe graphe = genererGrilleTriangulee(cote);
+        GrapheCompact c = graphe.getGrapheCompact();
+        Coloration parallele = ColorationParallele.calculer(c, 42, 4);
+        Coloration gloutonne = Coloration.gloutonne(c);
+        assertTrue(parallele.estPropre());
+        assertTrue(parallele.getNbCouleurs() <= 7);
+        assertTrue(gloutonne.getNbCouleurs() <= 7);
+        assertEquals(parallele.getNbCouleurs(), graphe.getColorationParallele(42, 2).size());
+    }
+
+    @Test
+    public void test_cache_distances_sommets_partages() {
+        Graphe graphe = genererGrapheAleatoire(60, 150, 11);
+        Graphe partage = new Graphe(graphe.getSommets());
+        graphe.activerCacheDistances();
+        partage.activerCacheDistances();
+        partage.getCacheDistances().calculerTout();
+        GrapheCompact avant = partage.getGrapheCompact();
+        assertSame(avant, partage.getGrapheCompact());
+
+        // Les modifications faites à travers l'un des graphes sont vues par l'autre
+        List<Sommet> sommets = new ArrayList<>(graphe.getSommets());
+        Random random = new Random(5);
+        for (int etape = 0; etape < 20; etape++) {
+            Sommet s = sommets.get(random.nextInt(sommets.size()));
+            graphe.modifierSurcout(s, s.getSurcout() + 1 + random.nextInt(5));
+            if (etape % 5 == 0)
+                graphe.supprimerArete(s, s.getVoisins().stream().findFirst().orElse(s));
+            GrapheCompact c = new GrapheCompact(graphe);
+            Dijkstra dijkstra = new Dijkstra(c);
+            for (int u = 0; u < c.getNbSommets(); u += 5) {
+                dijkstra.calculer(u);
+                for (int v = 0; v < c.getNbSommets(); v++)
+                    assertEquals(dijkstra.getDistance(v), partage.getDistance(c.getSommet(u), c.getSommet(v)));
+            }
+        }
+        assertNotSame(avant, partage.getGrapheCompact());
+    }
+
+    @Test
+    public void test_graphe_compact_modifications_directes_des_sommets() {
+        initChaine(5);
+        GrapheCompact c = g.getGrapheCompact();
+        assertSame(c, g.getGrapheCompact());
+        g.getSommet(0).ajouterVoisin(g.getSommet(4));
+        g.getSommet(4).ajouterVoisin(g.getSommet(0));
+        assertNotSame(c, g.getGrapheCompact());
+        assertTrue(g.estCycle());
+
+        // Un sommet retiré du graphe ne le prévient plus
+        Sommet s = g.getSommet(2);
+        g.supprimerSommet(s);
+        c = g.getGrapheCompact();
+        s.ajouterVoisin(new Sommet.SommetBuilder().setIndice(10).createSommet());
+        assertSame(c, g.getGrapheCompact());
+    }
+
+    @Test
+    public void test_connexite_dynamique_reutilise_les_numeros() {
+        ConnexiteDynamique dynamique = new ConnexiteDynamique();
+        int[] chaine = new int[8];
+        for (int i = 0; i < chaine.length; i++) {
+            chaine[i] = dynamique.ajouterSommet();
+            if (i > 0)
+                dynamique.ajouterArete(chaine[i - 1], chaine[i]);
+        }
+        for (int etape = 0; etape < 20000; etape++) {
+            int u = dynamique.ajouterSommet();
+            dynamique.ajouterArete(u, chaine[etape % 8]);
+            dynamique.ajouterArete(u, chaine[(etape + 3) % 8]);
+            dynamique.supprimerArete(chaine[3], chaine[4]);
+            assertTrue(dynamique.sontConnectes(chaine[0], chaine[7]) == (etape % 8 <= 3 && (etape + 3) % 8 >= 4
+                    || (etape + 3) % 8 <= 3 && etape % 8 >= 4));
+            dynamique.ajouterArete(chaine[3], chaine[4]);
+            dynamique.supprimerArete(u, chaine[etape % 8]);
+            dynamique.supprimerArete(u, chaine[(etape + 3) % 8]);
+            dynamique.supprimerSommet(u);
+        }
+        assertEquals(9, dynamique.getNbIdentifiants());
+        assertEquals(8, dynamique.getNbSommets());
+        assertTrue(dynamique.estConnexe());
+
+        int u = dynamique.ajouterSommet();
+        dynamique.ajouterArete(u, chaine[0]);
+        assertThrows(IllegalArgumentException.class, () -> dynamique.supprimerSommet(u));
+    }
+
+    @Test
+    public void test_connexite_dynamique_graphe_journalise_restaurations() {
+        initCycle(10);
+        GrapheJournalise essai = new GrapheJournalise(g.getSommets());
+        essai.activerConnexiteDynamique();
+        Random random = new Random(8);
+        for (int k = 0; k < 5000; k++) {
+            int point = essai.creerPointDeRestauration();
+            essai.supprimerSommet(essai.getSommet(random.nextInt(10)));
+            essai.supprimerSommet(essai.getSommet(essai.getSommets().iterator().next().getIndice()));
+            essai.restaurer(point);
+            assertTrue(essai.estConnexe());
+        }
+        assertTrue(essai.getConnexiteDynamique().getNbIdentifiants() <= 12);
+    }
+
+    @Test
+    public void test_sous_graphe_induit_suit_le_parent_sans_rescanner() {
+        initChaine(6);
+        Graphe vue = new SousGrapheInduit(g, Set.of(g.getSommet(0), g.getSommet(1), g.getSommet(2)));
+        GrapheCompact c = vue.getGrapheCompact();
+        assertSame(c, vue.getGrapheCompact());
+        // Une modification hors du sous-graphe reconstruit la vue, qui reste identique
+        g.modifierSurcout(g.getSommet(5), 4);
+        assertEquals(2, vue.getGrapheCompact().getNbAretes());
+
+        // Un surcout modifié à travers un autre graphe qui partage les sommets est vu par la vue
+        Graphe partage = new Graphe(g.getSommets());
+        assertEquals(0, vue.getDistance(g.getSommet(0), g.getSommet(2)));
+        partage.modifierSurcout(g.getSommet(2), 3);
+        assertEquals(3, vue.getDistance(g.getSommet(0), g.getSommet(2)));
+        partage.modifierSurcout(g.getSommet(1), 2);
+        assertEquals(5, vue.getDistance(g.getSommet(0), g.getSommet(2)));
+        c = vue.getGrapheCompact();
+        assertSame(c, vue.getGrapheCompact());
+    }
+
+    @Test
+    public void test_graphe_journalise_copie_les_sommets() {
+        initCycle(5);
+        g.activerCacheDistances();
+        int distance = g.getDistance(g.getSommet(0), g.getSommet(2));
+        GrapheJournalise essai = new GrapheJournalise(g.getSommets());
+        assertEquals(g.getAretes(), essai.getAretes());
+        assertNotSame(g.getSommet(0), essai.getSommet(0));
+
+        int point = essai.creerPointDeRestauration();
+        essai.supprimerArete(essai.getSommet(0), essai.getSommet(1));
+        essai.modifierSurcout(essai.getSommet(1), 7);
+        essai.supprimerSommet(essai.getSommet(4));
+        assertTrue(g.getSommet(0).estVoisin(g.getSommet(1)));
+        assertTrue(g.getSommet(4).estVoisin(g.getSommet(0)));
+        assertEquals(0, g.getSommet(1).getSurcout());
+        assertEquals(distance, g.getDistance(g.getSommet(0), g.getSommet(2)));
+        assertTrue(g.estCycle());
+        essai.restaurer(point);
+        assertEquals(g.getAretes(), essai.getAretes());
+    }
+
+    @Test
+    public void test_cliques_grand_graphe_creux() {
+        // Grille triangulée : 14 400 sommets, dégénérescence 3, cliques maximales = triangles
+        int cote = 120;
+        Graphe graphe = genererGrilleTriangulee(cote);
+        assertTrue(graphe.possedeSousGrapheComplet(2));
+        assertFalse(graphe.possedeSousGrapheComplet(5));
+        assertTrue(graphe.possedeSousGrapheComplet(3));
+        assertFalse(graphe.possedeSousGrapheComplet(4));
+        Cliques cliques = graphe.getCliques();
+        assertEquals(3, cliques.getDegenerescence());
+        assertEquals(3, cliques.getTailleMaximum());
+        long[] nb = new long[1];
+        cliques.enumererCliquesMaximales(clique -> nb[0]++);
+        assertEquals(2L * (cote - 1) * (cote - 1), nb[0]);
+    }
+
+    @Test
+    public void test_cliques_etoile() {
+        // Le centre a 3000 voisins, dont trois forment un triangle : une seule clique à 4 sommets
+        initSommet(3001);
+        for (int i = 1; i <= 3000; i++)
+            ajouterAretePratique(0, i);
+        ajouterAretePratique(10, 20);
+        ajouterAretePratique(20, 30);
+        ajouterAretePratique(10, 30);
+        ajouterAretePratique(40, 50);
+        assertEquals(3, g.getCliques().getDegenerescence());
+        assertTrue(g.possedeSousGrapheComplet(4));
+        assertFalse(g.possedeSousGrapheComplet(5));
+        assertEquals(Set.of(g.getSommet(0), g.getSommet(10), g.getSommet(20), g.getSommet(30)),
+                g.getCliques().getCliquesMaximales().stream().filter(c -> c.size() == 4).findFirst().orElseThrow());
+        assertEquals(2 + 2995, g.getCliques().getCliquesMaximales().size());
+    }
+
+    private static Graphe mycielski(Graphe graphe) {
+        int n = graphe.getNbSommets();
+        Graphe resultat = new Graphe(2 * n + 1);
+        for (Set<Sommet> arete : graphe.getAretes()) {
+            Iterator<Sommet> it = arete.iterator();
+            int u = it.next().getIndice(), v = it.next().getIndice();
+            resultat.ajouterArete(resultat.getSommet(u), resultat.getSommet(v));
+            resultat.ajouterArete(resultat.getSommet(n + u), resultat.getSommet(v));
+            resultat.ajouterArete(resultat.getSommet(u), resultat.getSommet(n + v));
+        }
+        for (int u = 0; u < n; u++)
+            resultat.ajouterArete(resultat.getSommet(n + u), resultat.getSommet(2 * n));
+        return resultat;
+    }
+
+    @Test
+    public void test_coloration_optimale_sans_triangle() {
+        // Graphes de Mycielski : sans triangle (borne inférieure 2) mais de nombre chromatique 4 puis 5
+        Graphe graphe = new Graphe(2);
+        graphe.ajouterArete(graphe.getSommet(0), graphe.getSommet(1));
+        for (int k = 3; k <= 5; k++) {
+            graphe = mycielski(graphe);
+            ColorationOptimale optimale = new ColorationOptimale(graphe.getGrapheCompact());
+            assertEquals(2, optimale.getBorneInferieure());
+            assertEquals(k, optimale.getNbCouleurs());
+            assertTrue(optimale.getColoration().estPropre());
+            assertEquals(k, optimale.getColoration().getNbCouleurs());
+            assertFalse(graphe.possedeSousGrapheComplet(3));
+        }
+    }
+
+    @Test
+    public void test_coloration_optimale_grand_degre() {
+        // Étoile à 20000 branches : DSatur atteint tout de suite la borne inférieure, sans recherche
+        initSommet(20001);
+        for (int i = 1; i <= 20000; i++)
+            ajouterAretePratique(0, i);
+        ColorationOptimale etoile = new ColorationOptimale(g.getGrapheCompact());
+        assertEquals(2, etoile.getNbCouleurs());
+        assertEquals(0, etoile.getNbNoeuds());
+        assertTrue(etoile.getColoration().estPropre());
+
+        // Roue dont la jante est un cycle impair (la dernière branche reste pendante) : 4 couleurs pour une clique
+        // de 3, prouvé par une recherche aussi profonde que la jante
+        for (int i = 1; i < 19999; i++)
+            ajouterAretePratique(i, i + 1);
+        ajouterAretePratique(19999, 1);
+        ColorationOptimale roue = new ColorationOptimale(g.getGrapheCompact());
+        assertEquals(3, roue.getBorneInferieure());
+        assertEquals(4, roue.getNbCouleurs());
+        assertTrue(roue.getColoration().estPropre());
+    }
+
+    @Test
+    public void test_graphe_joueur_suit_les_rails_poses() {
+        Jeu jeu = new Jeu(new String[]{"Rick", "Morty"}, new String[]{}, Plateau.OSAKA);
+        Joueur joueur = jeu.getJoueurs().get(0);
+        Graphe reseau = jeu.getGraphe(joueur);
+        assertEquals(0, reseau.getNbSommets());
+        List<Integer> indices = new ArrayList<>(jeu.getGraphe().getSommets().stream().map(Sommet::getIndice).toList());
+        Collections.shuffle(indices, new Random(4));
+        for (int k = 0; k < 10; k++) {
+            jeu.getTuile(indices.get(k)).ajouterRail(joueur);
+            // La vue créée avant la pose voit la nouvelle tuile, comme une vue créée après
+            assertEquals(k + 1, reseau.getNbSommets());
+            assertNotNull(reseau.getSommet(indices.get(k)));
+            assertEquals(jeu.getGraphe(joueur).getAretes(), reseau.getAretes());
+        }
+        assertEquals(0, jeu.getGraphe(jeu.getJoueurs().get(1)).getNbSommets());
+    }
+}